@@ -0,0 +1,404 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Bounding volume hierarchy stored in flat arrays, built by {@link BVHBuilder}.<br/>
+ * The nodes are kept in depth-first order, so the left child of an inner node
+ * is the node right after it. Traversal walks the arrays with an int stack and
+ * doesn't create any node objects
+ * @author Michal and Tamar
+ */
+final class BVH extends Intersectable {
+    /** entry distance of a node whose box the ray misses */
+    static final double MISS = Double.POSITIVE_INFINITY;
+    /**
+     * minimal cosine of the angle between the first ray of a packet and the others
+     * for the packet to be traced as coherent (about a quarter of a degree)
+     */
+    private static final double COHERENCE = 0.99999;
+
+    /** boxes of the nodes - 6 values per node (minimal and maximal x,y,z) */
+    private final double[] nodeBounds;
+    /**
+     * 2 values per node - for a leaf: index of its first geometry and amount of
+     * geometries; for an inner node: index of the right child and 0
+     */
+    private final int[] nodeData;
+    /** the geometries, ordered so that each leaf's geometries are consecutive */
+    private final Intersectable[] geometries;
+    /** box of the root */
+    private final BoundingBox box;
+    /** the triangles among the geometries, tested without calling them one by one */
+    private final TriangleBatch triangles;
+    /** traversal stack of each thread */
+    private final ThreadLocal<Stack> stacks;
+    /** traversal state of each thread for packets of rays */
+    private final ThreadLocal<Packet> packets;
+
+    /**
+     * Traversal stack of a thread - its size is the depth of the tree
+     */
+    static final class Stack {
+        /** the nodes to visit later */
+        final int[] nodes;
+        /** the distance where the ray enters each node's box */
+        final double[] distances;
+
+        Stack(int depth) {
+            nodes = new int[depth];
+            distances = new double[depth];
+        }
+    }
+
+    /**
+     * Traversal state of a thread for a packet of rays - the rays' heads and inverse
+     * directions, and a stack of nodes with the rays that still have to visit them
+     */
+    private static final class Packet {
+        /** the nodes to visit later */
+        final int[] nodes;
+        /** bit mask of the rays that have to visit each node */
+        final int[] masks;
+        /** heads of the rays */
+        final double[] ox = new double[PACKET_SIZE], oy = new double[PACKET_SIZE], oz = new double[PACKET_SIZE];
+        /** inverse directions of the rays */
+        final double[] invX = new double[PACKET_SIZE], invY = new double[PACKET_SIZE], invZ = new double[PACKET_SIZE];
+
+        Packet(int depth) {
+            nodes = new int[depth];
+            masks = new int[depth];
+        }
+    }
+
+    /**
+     * ctor
+     * @param nodeBounds boxes of the nodes
+     * @param nodeData   children and geometries of the nodes
+     * @param geometries the geometries in leaf order
+     * @param depth      depth of the tree
+     */
+    BVH(double[] nodeBounds, int[] nodeData, Intersectable[] geometries, int depth) {
+        this.nodeBounds = nodeBounds;
+        this.nodeData = nodeData;
+        this.geometries = geometries;
+        this.box = new BoundingBox(nodeBounds[0], nodeBounds[1], nodeBounds[2],
+                nodeBounds[3], nodeBounds[4], nodeBounds[5]);
+        this.triangles = new TriangleBatch(geometries);
+        this.stacks = ThreadLocal.withInitial(() -> new Stack(depth));
+        this.packets = ThreadLocal.withInitial(() -> new Packet(depth));
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+
+        List<GeoPoint> result = null;
+        int[] stack = stacks.get().nodes;
+        int top = 0;
+        int node = 0;
+        while (true) {
+            if (hitsNode(node, ox, oy, oz, invX, invY, invZ)) {
+                int first = nodeData[node * 2];
+                int count = nodeData[node * 2 + 1];
+                if (count == 0) { // inner node - visit the left child now and the right one later
+                    stack[top++] = first;
+                    ++node;
+                    continue;
+                }
+                for (int i = first; i < first + count; ++i) {
+                    List<GeoPoint> toAdd = geometries[i].findGeoIntersections(ray);
+                    if (toAdd != null) {
+                        if (result == null)
+                            result = new LinkedList<>();
+                        result.addAll(toAdd);
+                    }
+                }
+            }
+            if (top == 0)
+                return result;
+            node = stack[--top];
+        }
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+
+        int[] stack = stacks.get().nodes;
+        int top = 0;
+        int node = 0;
+        while (true) {
+            // nodes that the ray enters beyond maxDistance are skipped with all their geometries
+            double entry = entryDistance(node, ox, oy, oz, invX, invY, invZ);
+            if (entry != MISS && entry <= maxDistance) {
+                int first = nodeData[node * 2];
+                int count = nodeData[node * 2 + 1];
+                if (count == 0) {
+                    stack[top++] = first;
+                    ++node;
+                    continue;
+                }
+                for (int i = first; i < first + count; ++i) {
+                    ktr = geometries[i].findTransmittance(ray, maxDistance, ktr, minK);
+                    if (ktr.lowerThan(minK)) return Double3.ZERO; // the light is blocked
+                }
+            }
+            if (top == 0)
+                return ktr;
+            node = stack[--top];
+        }
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, Hit hit) {
+        return findClosestHit(0, ray, hit); // the root's box was already checked
+    }
+
+    @Override
+    public boolean findClosestHits(Ray[] rays, Hit[] hits, int count) {
+        if (count < 2 || count > PACKET_SIZE)
+            return super.findClosestHits(rays, hits, count);
+        // a diverging packet would drag its rays into many boxes they miss - its rays are traced alone
+        Vector firstDir = rays[0].getDirection();
+        for (int r = 1; r < count; ++r)
+            if (rays[r].getDirection().dotProduct(firstDir) < COHERENCE)
+                return super.findClosestHits(rays, hits, count);
+
+        Packet packet = packets.get();
+        for (int r = 0; r < count; ++r) {
+            Point head = rays[r].getHead();
+            Vector dir = rays[r].getDirection();
+            packet.ox[r] = head.getX();
+            packet.oy[r] = head.getY();
+            packet.oz[r] = head.getZ();
+            packet.invX[r] = 1 / dir.getX();
+            packet.invY[r] = 1 / dir.getY();
+            packet.invZ[r] = 1 / dir.getZ();
+        }
+
+        boolean found = false;
+        int top = 0;
+        int node = 0;
+        int mask = (1 << count) - 1; // the rays that have to visit the node
+        while (true) {
+            // the rays are tested against the node's box only until the first one that
+            // enters it before its closest intersection - the rest of the packet follows
+            // that ray without being tested, and its geometries reject the rays that miss them
+            int active = mask;
+            while (active != 0 && !entersNode(node, packet, Integer.numberOfTrailingZeros(active), hits))
+                active &= active - 1;
+            if (Integer.bitCount(active) == 1) {
+                // the packet diverged - the only ray left goes on alone
+                int r = Integer.numberOfTrailingZeros(active);
+                found |= findClosestHit(node, rays[r], hits[r]);
+            } else if (active != 0) {
+                int first = nodeData[node * 2];
+                int leafSize = nodeData[node * 2 + 1];
+                if (leafSize == 0) {
+                    // inner node - visit first the child that is nearer along the first ray
+                    int near = node + 1, far = first;
+                    Vector dir = rays[Integer.numberOfTrailingZeros(active)].getDirection();
+                    if (centerAlong(far, dir) < centerAlong(near, dir)) {
+                        near = first;
+                        far = node + 1;
+                    }
+                    packet.nodes[top] = far;
+                    packet.masks[top++] = active;
+                    node = near;
+                    mask = active;
+                    continue;
+                }
+                for (int m = active; m != 0; m &= m - 1) {
+                    int r = Integer.numberOfTrailingZeros(m);
+                    found |= findClosestHit(first, leafSize, rays[r], hits[r]);
+                }
+            }
+            if (top == 0)
+                return found;
+            node = packet.nodes[--top];
+            mask = packet.masks[top];
+        }
+    }
+
+    /**
+     * Looks for the closest intersection of a ray in a sub-tree
+     * @param root the root of the sub-tree, whose box the ray hits
+     * @param ray  the ray
+     * @param hit  the closest intersection so far, updated if a closer one is found
+     * @return true if a closer intersection was found
+     */
+    private boolean findClosestHit(int root, Ray ray, Hit hit) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+
+        boolean found = false;
+        Stack stack = stacks.get();
+        int top = 0;
+        int node = root;
+        while (true) {
+            int first = nodeData[node * 2];
+            int count = nodeData[node * 2 + 1];
+            if (count == 0) {
+                // inner node - visit the nearer child now and the farther one later,
+                // so the farther one is likely skipped once a closer intersection is found
+                int near = node + 1, far = first;
+                double tNear = entryDistance(near, ox, oy, oz, invX, invY, invZ);
+                double tFar = entryDistance(far, ox, oy, oz, invX, invY, invZ);
+                if (tFar < tNear) {
+                    near = first;
+                    far = node + 1;
+                    double t = tNear;
+                    tNear = tFar;
+                    tFar = t;
+                }
+                if (tNear != MISS && tNear <= hit.t) {
+                    if (tFar != MISS && tFar <= hit.t) {
+                        stack.nodes[top] = far;
+                        stack.distances[top++] = tFar;
+                    }
+                    node = near;
+                    continue;
+                }
+            } else {
+                found |= findClosestHit(first, count, ray, hit);
+            }
+            // the next node still to visit, skipping those that the ray enters after the closest intersection
+            do {
+                if (top == 0)
+                    return found;
+                --top;
+            } while (stack.distances[top] > hit.t);
+            node = stack.nodes[top];
+        }
+    }
+
+    /**
+     * Slab test of a ray against a node's box, like {@link BoundingBox#intersects(Ray)}
+     * but with the ray's inverse direction calculated once per traversal
+     * @param node the node index
+     * @param ox   x of the ray's head
+     * @param oy   y of the ray's head
+     * @param oz   z of the ray's head
+     * @param invX 1 / x of the ray's direction
+     * @param invY 1 / y of the ray's direction
+     * @param invZ 1 / z of the ray's direction
+     * @return true if the ray hits the node's box
+     */
+    private boolean hitsNode(int node, double ox, double oy, double oz, double invX, double invY, double invZ) {
+        int offset = node * 6;
+        double tx1 = (nodeBounds[offset] - ox) * invX, tx2 = (nodeBounds[offset + 3] - ox) * invX;
+        double ty1 = (nodeBounds[offset + 1] - oy) * invY, ty2 = (nodeBounds[offset + 4] - oy) * invY;
+        double tz1 = (nodeBounds[offset + 2] - oz) * invZ, tz2 = (nodeBounds[offset + 5] - oz) * invZ;
+        double tNear = Math.max(Math.max(Math.min(tx1, tx2), Math.min(ty1, ty2)), Math.min(tz1, tz2));
+        double tFar = Math.min(Math.min(Math.max(tx1, tx2), Math.max(ty1, ty2)), Math.max(tz1, tz2));
+        return tNear <= tFar && tFar >= 0;
+    }
+
+    /**
+     * Looks for the closest intersection of a ray with the geometries of a leaf -
+     * the triangles in one batch, and the other geometries one by one
+     * @param first index of the leaf's first geometry
+     * @param count amount of geometries in the leaf
+     * @param ray   the ray
+     * @param hit   the closest intersection so far, updated if a closer one is found
+     * @return true if a closer intersection was found
+     */
+    private boolean findClosestHit(int first, int count, Ray ray, Hit hit) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        boolean found = triangles.findClosestHit(first, first + count, head.getX(), head.getY(), head.getZ(),
+                dir.getX(), dir.getY(), dir.getZ(), hit);
+        for (int i = first; i < first + count; ++i)
+            if (!triangles.contains(i))
+                found |= geometries[i].findClosestHit(ray, hit);
+        return found;
+    }
+
+    /**
+     * Checks whether a ray of a packet enters a node's box before its closest intersection
+     * @param node   the node index
+     * @param packet the packet's traversal state
+     * @param r      index of the ray in the packet
+     * @param hits   the closest intersections of the packet's rays so far
+     * @return true if the ray has to visit the node
+     */
+    private boolean entersNode(int node, Packet packet, int r, Hit[] hits) {
+        double entry = entryDistance(node, packet.ox[r], packet.oy[r], packet.oz[r],
+                packet.invX[r], packet.invY[r], packet.invZ[r]);
+        return entry != MISS && entry <= hits[r].t;
+    }
+
+    /**
+     * Position of a node's box along a direction
+     * @param node the node index
+     * @param dir  the direction
+     * @return dot product of the direction and the box's center (doubled)
+     */
+    private double centerAlong(int node, Vector dir) {
+        int offset = node * 6;
+        return dir.getX() * (nodeBounds[offset] + nodeBounds[offset + 3])
+                + dir.getY() * (nodeBounds[offset + 1] + nodeBounds[offset + 4])
+                + dir.getZ() * (nodeBounds[offset + 2] + nodeBounds[offset + 5]);
+    }
+
+    /**
+     * Slab test of a ray against a node's box, like {@link #hitsNode}
+     * @param node the node index
+     * @param ox   x of the ray's head
+     * @param oy   y of the ray's head
+     * @param oz   z of the ray's head
+     * @param invX 1 / x of the ray's direction
+     * @param invY 1 / y of the ray's direction
+     * @param invZ 1 / z of the ray's direction
+     * @return the distance where the ray enters the node's box (0 if it starts inside),
+     * or {@link #MISS} if it misses the box
+     */
+    private double entryDistance(int node, double ox, double oy, double oz, double invX, double invY, double invZ) {
+        return entryDistance(nodeBounds, node, ox, oy, oz, invX, invY, invZ);
+    }
+
+    /**
+     * Slab test of a ray against a node's box in the flat arrays of any hierarchy
+     * built by {@link BVHBuilder}
+     * @param nodeBounds boxes of the hierarchy's nodes
+     * @param node       the node index
+     * @param ox         x of the ray's head
+     * @param oy         y of the ray's head
+     * @param oz         z of the ray's head
+     * @param invX       1 / x of the ray's direction
+     * @param invY       1 / y of the ray's direction
+     * @param invZ       1 / z of the ray's direction
+     * @return the distance where the ray enters the node's box (0 if it starts inside),
+     * or {@link #MISS} if it misses the box
+     */
+    static double entryDistance(double[] nodeBounds, int node, double ox, double oy, double oz,
+                                double invX, double invY, double invZ) {
+        int offset = node * 6;
+        double tx1 = (nodeBounds[offset] - ox) * invX, tx2 = (nodeBounds[offset + 3] - ox) * invX;
+        double ty1 = (nodeBounds[offset + 1] - oy) * invY, ty2 = (nodeBounds[offset + 4] - oy) * invY;
+        double tz1 = (nodeBounds[offset + 2] - oz) * invZ, tz2 = (nodeBounds[offset + 5] - oz) * invZ;
+        double tNear = Math.max(Math.max(Math.min(tx1, tx2), Math.min(ty1, ty2)), Math.min(tz1, tz2));
+        double tFar = Math.min(Math.min(Math.max(tx1, tx2), Math.max(ty1, ty2)), Math.max(tz1, tz2));
+        return tNear <= tFar && tFar >= 0 ? Math.max(tNear, 0) : MISS;
+    }
+}
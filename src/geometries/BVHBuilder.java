@@ -0,0 +1,436 @@
+package geometries;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builder of a bounding volume hierarchy (BVH) over bounded geometries.<br/>
+ * Each node is split according to the surface area heuristic (SAH): the centers
+ * of the geometries are sorted into bins along an axis, and the split between
+ * two bins that minimizes the expected cost of a ray query is chosen.
+ * Sub-trees of large nodes are built in parallel as fork/join tasks, and the
+ * finished tree is stored in the flat arrays of a {@link BVH}
+ * @author Michal and Tamar
+ */
+public class BVHBuilder {
+    /**
+     * Build modes - trading the build time against the quality of the tree
+     */
+    public enum Mode {
+        /** only the longest axis is tried, with few bins - fastest build */
+        FAST(8, false),
+        /** all three axes are tried, with more bins - best tree for rendering */
+        QUALITY(32, true);
+
+        /** amount of bins per axis */
+        private final int bins;
+        /** true if all three axes are tried, false if only the longest one */
+        private final boolean allAxes;
+
+        Mode(int bins, boolean allAxes) {
+            this.bins = bins;
+            this.allAxes = allAxes;
+        }
+    }
+
+    /**
+     * Build time and quality metrics of a built hierarchy
+     * @param buildTime build time in milliseconds
+     * @param nodes     total amount of nodes (inner nodes and leaves)
+     * @param leaves    amount of leaves
+     * @param depth     depth of the deepest leaf (the root is at depth 1)
+     * @param sahCost   expected cost of a ray query according to the surface area heuristic,
+     *                  in units of one geometry intersection
+     */
+    public record Statistics(long buildTime, int nodes, int leaves, int depth, double sahCost) {
+        @Override
+        public String toString() {
+            return String.format("BVH: %d ms, %d nodes, %d leaves, depth %d, SAH cost %.2f",
+                    buildTime, nodes, leaves, depth, sahCost);
+        }
+    }
+
+    /** the maximal amount of geometries in a leaf */
+    private static final int MAX_LEAF_SIZE = 4;
+    /** nodes with more geometries than this have their sub-trees built in parallel */
+    private static final int PARALLEL_THRESHOLD = 1024;
+    /** cost of visiting a node, relative to the cost of intersecting a geometry */
+    private static final double TRAVERSAL_COST = 1;
+
+    private final Mode mode;
+    private Statistics statistics = null;
+
+    /** boxes of the geometries - 6 values per geometry (minimal and maximal x,y,z) */
+    private double[] bounds;
+    /** centers of the geometries' boxes - 3 values per geometry */
+    private double[] centers;
+    /** geometry indices, the range of each node is kept consecutive */
+    private int[] indices;
+
+    /**
+     * ctor
+     * @param mode the build mode
+     */
+    public BVHBuilder(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * getter for the metrics of the last build
+     * @return the statistics, or null if nothing was built yet
+     */
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Builds the hierarchy over the geometries
+     * @param geometries the geometries, all of them must have a bounding box
+     * @return the root of the hierarchy
+     */
+    public Intersectable build(List<Intersectable> geometries) {
+        if (geometries.isEmpty())
+            throw new IllegalArgumentException("Can't build a hierarchy without geometries");
+        int size = geometries.size();
+        double[] boxes = new double[size * 6];
+        for (int i = 0; i < size; ++i) {
+            BoundingBox box = geometries.get(i).getBoundingBox();
+            boxes[i * 6] = box.minX;
+            boxes[i * 6 + 1] = box.minY;
+            boxes[i * 6 + 2] = box.minZ;
+            boxes[i * 6 + 3] = box.maxX;
+            boxes[i * 6 + 4] = box.maxY;
+            boxes[i * 6 + 5] = box.maxZ;
+        }
+        Tree tree = build(boxes);
+        Intersectable[] ordered = new Intersectable[size];
+        for (int i = 0; i < size; ++i)
+            ordered[i] = geometries.get(tree.order[i]);
+        return new BVH(tree.nodeBounds, tree.nodeData, ordered, tree.depth);
+    }
+
+    /**
+     * A built hierarchy in the flat arrays of {@link BVH}
+     * @param nodeBounds boxes of the nodes - 6 values per node
+     * @param nodeData   2 values per node - first item and amount of items for a leaf,
+     *                   right child and 0 for an inner node
+     * @param order      the items' indices in leaf order - each leaf's items are consecutive
+     * @param depth      depth of the deepest leaf
+     */
+    record Tree(double[] nodeBounds, int[] nodeData, int[] order, int depth) {
+    }
+
+    /**
+     * Builds the hierarchy over items given by their boxes only
+     * @param boxes boxes of the items - 6 values per item (minimal and maximal x,y,z)
+     * @return the hierarchy
+     */
+    Tree build(double[] boxes) {
+        long start = System.nanoTime();
+        int size = boxes.length / 6;
+        bounds = boxes;
+        centers = new double[size * 3];
+        indices = new int[size];
+        for (int i = 0; i < size; ++i) {
+            for (int axis = 0; axis < 3; ++axis)
+                centers[i * 3 + axis] = (boxes[i * 6 + axis] + boxes[i * 6 + axis + 3]) / 2;
+            indices[i] = i;
+        }
+
+        Node root = ForkJoinPool.commonPool().invoke(new BuildTask(0, size));
+        int[] counts = new int[3]; // nodes, leaves, depth
+        double rootArea = area(root.box);
+        double cost = collect(root, 1, counts) / (rootArea > 0 ? rootArea : 1);
+
+        // flatten the tree - the leaves' ranges in the indices array are already consecutive
+        double[] nodeBounds = new double[counts[0] * 6];
+        int[] nodeData = new int[counts[0] * 2];
+        flatten(root, nodeBounds, nodeData, 0);
+        Tree tree = new Tree(nodeBounds, nodeData, indices, counts[2]);
+
+        long buildTime = (System.nanoTime() - start) / 1_000_000;
+        statistics = new Statistics(buildTime, counts[0], counts[1], counts[2], cost);
+        bounds = centers = null;
+        indices = null;
+        return tree;
+    }
+
+    /**
+     * Node of the hierarchy during the build
+     */
+    private static final class Node {
+        /** box of the node - minimal and maximal x,y,z */
+        final double[] box;
+        /** children, both null in a leaf */
+        Node left, right;
+        /** range of the leaf's geometries in the indices array */
+        int start, count;
+
+        Node(double[] box) {
+            this.box = box;
+        }
+    }
+
+    /**
+     * Fork/join task that builds the sub-tree of a range of geometries
+     */
+    // serializable only through ForkJoinTask - a task is never serialized, it lives
+    // only during the build and refers to the builder that isn't serializable
+    @SuppressWarnings("serial")
+    private final class BuildTask extends RecursiveTask<Node> {
+        private final int start;
+        private final int end;
+
+        BuildTask(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Node compute() {
+            return buildNode(start, end);
+        }
+    }
+
+    /**
+     * Builds the sub-tree of a range of geometries
+     * @param start first index in the indices array
+     * @param end   index after the last one in the indices array
+     * @return the root of the sub-tree
+     */
+    private Node buildNode(int start, int end) {
+        int count = end - start;
+        // box of the node and box of the geometries' centers
+        double[] box = emptyBox();
+        double[] centersBox = emptyBox();
+        for (int i = start; i < end; ++i) {
+            int geometry = indices[i];
+            for (int axis = 0; axis < 3; ++axis) {
+                box[axis] = Math.min(box[axis], bounds[geometry * 6 + axis]);
+                box[axis + 3] = Math.max(box[axis + 3], bounds[geometry * 6 + axis + 3]);
+                double center = centers[geometry * 3 + axis];
+                centersBox[axis] = Math.min(centersBox[axis], center);
+                centersBox[axis + 3] = Math.max(centersBox[axis + 3], center);
+            }
+        }
+        Node node = new Node(box);
+        node.start = start;
+        node.count = count;
+        if (count == 1 || (mode == Mode.FAST && count <= MAX_LEAF_SIZE))
+            return node;
+
+        int mid = splitSAH(start, end, box, centersBox);
+        if (mid < 0) // a leaf is cheaper than any split
+            return node;
+        if (mid == start || mid == end) // the centers can't be told apart - split the range in the middle
+            mid = start + count / 2;
+
+        if (count > PARALLEL_THRESHOLD) {
+            BuildTask leftTask = new BuildTask(start, mid);
+            leftTask.fork();
+            node.right = buildNode(mid, end);
+            node.left = leftTask.join();
+        } else {
+            node.left = buildNode(start, mid);
+            node.right = buildNode(mid, end);
+        }
+        node.count = 0;
+        return node;
+    }
+
+    /**
+     * Finds the cheapest split of a range of geometries according to the surface
+     * area heuristic over binned centers, and partitions the range accordingly
+     * @param start      first index in the indices array
+     * @param end        index after the last one in the indices array
+     * @param box        box of the range's geometries
+     * @param centersBox box of the range's geometries' centers
+     * @return index of the first geometry of the right part, or -1 if the range
+     * should rather stay a leaf
+     */
+    private int splitSAH(int start, int end, double[] box, double[] centersBox) {
+        int count = end - start;
+        int bins = mode.bins;
+        int firstAxis = 0, lastAxis = 2;
+        if (!mode.allAxes) {
+            firstAxis = lastAxis = longestAxis(centersBox);
+        }
+
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1, bestBin = -1;
+        int[] binCounts = new int[bins];
+        double[] binBoxes = new double[bins * 6];
+        double[] rightAreas = new double[bins];
+        for (int axis = firstAxis; axis <= lastAxis; ++axis) {
+            double min = centersBox[axis];
+            double extent = centersBox[axis + 3] - min;
+            if (extent <= 0) continue;
+
+            // sort the geometries' centers into the bins
+            Arrays.fill(binCounts, 0);
+            for (int b = 0; b < bins; ++b)
+                setEmptyBox(binBoxes, b * 6);
+            double scale = bins / extent;
+            for (int i = start; i < end; ++i) {
+                int geometry = indices[i];
+                int bin = binOf(centers[geometry * 3 + axis], min, scale, bins);
+                ++binCounts[bin];
+                unite(binBoxes, bin * 6, bounds, geometry * 6);
+            }
+
+            // sweep from the right to get the areas of all the right parts
+            double[] sweep = emptyBox();
+            for (int b = bins - 1; b > 0; --b) {
+                unite(sweep, 0, binBoxes, b * 6);
+                rightAreas[b] = area(sweep);
+            }
+            // sweep from the left and evaluate every split between bin b-1 and bin b
+            sweep = emptyBox();
+            int leftCount = 0;
+            for (int b = 1; b < bins; ++b) {
+                unite(sweep, 0, binBoxes, (b - 1) * 6);
+                leftCount += binCounts[b - 1];
+                int rightCount = count - leftCount;
+                if (leftCount == 0 || rightCount == 0) continue;
+                double cost = area(sweep) * leftCount + rightAreas[b] * rightCount;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = b;
+                }
+            }
+        }
+
+        if (bestAxis < 0) // all the centers are at the same point
+            return count <= MAX_LEAF_SIZE ? -1 : start;
+        double splitCost = TRAVERSAL_COST + bestCost / area(box);
+        if (count <= MAX_LEAF_SIZE && count <= splitCost)
+            return -1;
+
+        // partition the range - geometries in the bins left of the split first
+        double min = centersBox[bestAxis];
+        double scale = bins / (centersBox[bestAxis + 3] - min);
+        int left = start, right = end - 1;
+        while (left <= right) {
+            if (binOf(centers[indices[left] * 3 + bestAxis], min, scale, bins) < bestBin)
+                ++left;
+            else {
+                int tmp = indices[left];
+                indices[left] = indices[right];
+                indices[right--] = tmp;
+            }
+        }
+        return left;
+    }
+
+    /**
+     * Stores a sub-tree in the flat arrays in depth-first order
+     * @param node       root of the sub-tree
+     * @param nodeBounds boxes of the nodes - 6 values per node
+     * @param nodeData   2 values per node - first geometry and amount of geometries
+     *                   for a leaf, right child and 0 for an inner node
+     * @param index      index of the sub-tree's root in the arrays
+     * @return index after the last node of the sub-tree
+     */
+    private static int flatten(Node node, double[] nodeBounds, int[] nodeData, int index) {
+        System.arraycopy(node.box, 0, nodeBounds, index * 6, 6);
+        if (node.left == null) {
+            nodeData[index * 2] = node.start;
+            nodeData[index * 2 + 1] = node.count;
+            return index + 1;
+        }
+        int right = flatten(node.left, nodeBounds, nodeData, index + 1);
+        nodeData[index * 2] = right;
+        nodeData[index * 2 + 1] = 0;
+        return flatten(node.right, nodeBounds, nodeData, right);
+    }
+
+    /**
+     * Collects the metrics of a sub-tree
+     * @param node   root of the sub-tree
+     * @param depth  depth of the root of the sub-tree
+     * @param counts accumulated amount of nodes, amount of leaves and maximal depth
+     * @return the un-normalized SAH cost of the sub-tree
+     */
+    private static double collect(Node node, int depth, int[] counts) {
+        ++counts[0];
+        counts[2] = Math.max(counts[2], depth);
+        if (node.left == null) {
+            ++counts[1];
+            return area(node.box) * node.count;
+        }
+        return area(node.box) * TRAVERSAL_COST
+                + collect(node.left, depth + 1, counts) + collect(node.right, depth + 1, counts);
+    }
+
+    /**
+     * Calculates the bin of a center coordinate
+     * @param center the center's coordinate
+     * @param min    the minimal center's coordinate
+     * @param scale  amount of bins per length unit
+     * @param bins   amount of bins
+     * @return the bin index
+     */
+    private static int binOf(double center, double min, double scale, int bins) {
+        return Math.min(bins - 1, (int) ((center - min) * scale));
+    }
+
+    /**
+     * Longest axis of a box
+     * @param box the box
+     * @return 0 for x, 1 for y, 2 for z
+     */
+    private static int longestAxis(double[] box) {
+        double dx = box[3] - box[0], dy = box[4] - box[1], dz = box[5] - box[2];
+        return dx >= dy && dx >= dz ? 0 : dy >= dz ? 1 : 2;
+    }
+
+    /**
+     * Creates an empty box - any united box replaces it
+     * @return the empty box
+     */
+    private static double[] emptyBox() {
+        double[] box = new double[6];
+        setEmptyBox(box, 0);
+        return box;
+    }
+
+    /**
+     * Resets a box inside an array to be empty
+     * @param boxes  the array
+     * @param offset offset of the box in the array
+     */
+    private static void setEmptyBox(double[] boxes, int offset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            boxes[offset + axis] = Double.POSITIVE_INFINITY;
+            boxes[offset + axis + 3] = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Extends a box to surround another box
+     * @param target       the array of the extended box
+     * @param targetOffset offset of the extended box in its array
+     * @param source       the array of the other box
+     * @param sourceOffset offset of the other box in its array
+     */
+    private static void unite(double[] target, int targetOffset, double[] source, int sourceOffset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            target[targetOffset + axis] = Math.min(target[targetOffset + axis], source[sourceOffset + axis]);
+            target[targetOffset + axis + 3] = Math.max(target[targetOffset + axis + 3], source[sourceOffset + axis + 3]);
+        }
+    }
+
+    /**
+     * Calculates the surface area of a box
+     * @param box the box
+     * @return the surface area, 0 for an empty box
+     */
+    private static double area(double[] box) {
+        double dx = box[3] - box[0], dy = box[4] - box[1], dz = box[5] - box[2];
+        if (dx < 0 || dy < 0 || dz < 0) return 0;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+}
@@ -0,0 +1,150 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * A class for representing an axis-aligned bounding box (AABB) of a geometry.
+ * It is used to skip geometries that a ray can't hit without running the
+ * (expensive) intersection calculation of the geometry itself
+ * @author Michal and Tamar
+ */
+public class BoundingBox {
+    /** minimal x coordinate of the box */
+    final double minX;
+    /** minimal y coordinate of the box */
+    final double minY;
+    /** minimal z coordinate of the box */
+    final double minZ;
+    /** maximal x coordinate of the box */
+    final double maxX;
+    /** maximal y coordinate of the box */
+    final double maxY;
+    /** maximal z coordinate of the box */
+    final double maxZ;
+
+    /**
+     * ctor
+     * @param minX minimal x coordinate
+     * @param minY minimal y coordinate
+     * @param minZ minimal z coordinate
+     * @param maxX maximal x coordinate
+     * @param maxY maximal y coordinate
+     * @param maxZ maximal z coordinate
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        if (minX > maxX || minY > maxY || minZ > maxZ)
+            throw new IllegalArgumentException("Minimal corner of a bounding box must be below the maximal corner");
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * ctor
+     * @param min the corner of the box with the minimal coordinates
+     * @param max the corner of the box with the maximal coordinates
+     */
+    public BoundingBox(Point min, Point max) {
+        this(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ());
+    }
+
+    /**
+     * Creates the smallest box that contains all the given points
+     * @param points the points to surround
+     * @return the bounding box of the points
+     */
+    public static BoundingBox of(Iterable<Point> points) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            minZ = Math.min(minZ, p.getZ());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+            maxZ = Math.max(maxZ, p.getZ());
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * getter for the corner of the box with the minimal coordinates
+     * @return minimal corner
+     */
+    public Point getMin() {
+        return new Point(minX, minY, minZ);
+    }
+
+    /**
+     * getter for the corner of the box with the maximal coordinates
+     * @return maximal corner
+     */
+    public Point getMax() {
+        return new Point(maxX, maxY, maxZ);
+    }
+
+    /**
+     * getter for the center of the box
+     * @return center point of the box
+     */
+    public Point getCenter() {
+        return new Point((minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2);
+    }
+
+    /**
+     * Creates the smallest box that contains both this box and the other box
+     * @param other the other box
+     * @return the united box
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * Checks whether a ray hits the box, using the slab method:
+     * the ray is clipped against the pair of planes of each axis, and it hits the
+     * box only if the three clipped ranges overlap in front of the ray's head.
+     * The test uses only multiplications and min/max, without branches per axis
+     * @param ray the ray to check
+     * @return true if the ray hits the box (or starts inside it), false otherwise
+     */
+    public boolean intersects(Ray ray) {
+        return intersects(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Checks whether a ray hits the box not farther than a given distance from its head,
+     * like {@link #intersects(Ray)}
+     * @param ray         the ray to check
+     * @param maxDistance the maximal distance from the ray's head
+     * @return true if the ray reaches the box up to maxDistance, false otherwise
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+
+        // a zero direction component gives infinite distances, so that axis doesn't clip the range
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+        double tx1 = (minX - ox) * invX, tx2 = (maxX - ox) * invX;
+        double ty1 = (minY - oy) * invY, ty2 = (maxY - oy) * invY;
+        double tz1 = (minZ - oz) * invZ, tz2 = (maxZ - oz) * invZ;
+
+        double tNear = Math.max(Math.max(Math.min(tx1, tx2), Math.min(ty1, ty2)), Math.min(tz1, tz2));
+        double tFar = Math.min(Math.min(Math.max(tx1, tx2), Math.max(ty1, ty2)), Math.max(tz1, tz2));
+        // a ray lying exactly on a face of the box gives NaN and is rejected -
+        // it may touch the geometry inside only on its boundary
+        return tNear <= tFar && tFar >= 0 && tNear <= maxDistance;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" + getMin() + ", " + getMax() + '}';
+    }
+}
@@ -1,8 +1,13 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
+
+import java.util.List;
+
+import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 /**
@@ -10,6 +15,7 @@ import static primitives.Util.isZero;
  */
 public class Cylinder extends Tube{
     private final double height;
+    private final BoundingBox box;
 
     /**
      * ctor
@@ -20,19 +26,144 @@ public class Cylinder extends Tube{
     public Cylinder(double height, double radius, Ray ray) {
         super(ray,radius);
         this.height = height;
+
+        // the box surrounds the two bases - a base's extent along each axis is
+        // radius * sin(angle between the axis and the cylinder's direction)
+        Point bottom = ray.getHead();
+        Point top = ray.getPoint(height);
+        Vector dir = ray.getDirection();
+        double ex = radius * Math.sqrt(Math.max(0, 1 - dir.getX() * dir.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - dir.getY() * dir.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - dir.getZ() * dir.getZ()));
+        this.box = new BoundingBox(
+                Math.min(bottom.getX(), top.getX()) - ex,
+                Math.min(bottom.getY(), top.getY()) - ey,
+                Math.min(bottom.getZ(), top.getZ()) - ez,
+                Math.max(bottom.getX(), top.getX()) + ex,
+                Math.max(bottom.getY(), top.getY()) + ey,
+                Math.max(bottom.getZ(), top.getZ()) + ez);
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
 
+    @Override
+    public List<Point> findIntersections(Ray ray) {
+        // unlike the infinite tube, the cylinder's intersections are calculated
+        List<GeoPoint> geoList = findGeoIntersections(ray);
+        return geoList == null ? null : geoList.stream().map(gp -> gp.point).toList();
+    }
 
     @Override
-    public Vector getNormal(Point point) {
-        // if the given point collides with the base point of the axis ray, just return the normal vector (dir)
-        if (point.equals(this.axis.getHead())) return this.axis.getDirection();
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Span span = clip(ray);
+        if (span == null) return null;
+        GeoPoint exit = new GeoPoint(this, ray.getPoint(span.far), span.far);
+        return span.near <= 0 ? List.of(exit)
+                : List.of(new GeoPoint(this, ray.getPoint(span.near), span.near), exit);
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, Hit hit) {
+        // the exit is the closest intersection only if the ray starts inside the cylinder
+        Span span = clip(ray);
+        return span != null && hit.update(span.near > 0 ? span.near : span.far, this);
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        Span span = clip(ray);
+        if (span == null) return ktr;
+        if (span.near > 0 && alignZero(span.near - maxDistance) <= 0) {
+            ktr = passLight(ktr, minK);
+            if (ktr == Double3.ZERO) return ktr;
+        }
+        return alignZero(span.far - maxDistance) <= 0 ? passLight(ktr, minK) : ktr;
+    }
 
-        //calculating distance of the given point from base point of the axis ray
-        double t = this.axis.getDirection().dotProduct(point.subtract(this.axis.getHead()));
-        //if the given point is on one of the bases of the cylinder, we just return a normal vector to the base (dir)
-        if (isZero(t) || isZero(t - this.height)) return this.axis.getDirection();
+    /**
+     * The part of a ray inside the cylinder - one scratch object per thread, so
+     * that clipping a ray doesn't create an object
+     */
+    private static final class Span {
+        /** distance where the ray enters the cylinder, not positive if the ray starts inside it */
+        double near;
+        /** distance where the ray exits the cylinder, always positive */
+        double far;
+    }
+
+    /** the spans of the rays clipped by each thread */
+    private static final ThreadLocal<Span> SPANS = ThreadLocal.withInitial(Span::new);
+
+    /**
+     * Clips a ray against the cylinder - the part of the ray inside both the
+     * infinite tube and the slab between the two bases' planes. The ray enters the
+     * cylinder where it enters the later of them, and exits where it exits the
+     * earlier one, so the bases are clipped against the tube and the tube against
+     * the height. Rays that only touch the side or the rim don't intersect
+     * @param ray the ray
+     * @return the part of the ray inside the cylinder in the thread's scratch object,
+     * valid until the thread clips another ray, or null if there is none or if it is
+     * behind the ray's head
+     */
+    private Span clip(Ray ray) {
+        Point head = ray.getHead();
+        Point base = axis.getHead();
+        Vector dir = ray.getDirection();
+        Vector v = axis.getDirection();
+        // the ray's head relative to the center of the lower base
+        double px = head.getX() - base.getX(), py = head.getY() - base.getY(), pz = head.getZ() - base.getZ();
+        double dirV = dir.dotProduct(v);
+        double pV = px * v.getX() + py * v.getY() + pz * v.getZ();
+
+        // the slab between the bases - the height along the axis is pV + t * dirV
+        double near = Double.NEGATIVE_INFINITY, far = Double.POSITIVE_INFINITY;
+        if (isZero(dirV)) {
+            if (alignZero(pV) <= 0 || alignZero(pV - height) >= 0) return null;
+        } else {
+            double t1 = -pV / dirV, t2 = (height - pV) / dirV;
+            near = Math.min(t1, t2);
+            far = Math.max(t1, t2);
+        }
+
+        // the infinite tube - the same equation as in Tube
+        double a = 1 - dirV * dirV;
+        double b = 2 * (dir.getX() * px + dir.getY() * py + dir.getZ() * pz - dirV * pV);
+        double c = px * px + py * py + pz * pz - pV * pV - radius * radius;
+        if (isZero(a)) { // parallel to the axis - inside the tube everywhere or nowhere
+            if (alignZero(c) >= 0) return null;
+        } else {
+            double discriminant = alignZero(b * b - 4 * a * c);
+            if (discriminant <= 0) return null;
+            double root = Math.sqrt(discriminant);
+            near = Math.max(near, (-b - root) / (2 * a));
+            far = Math.min(far, (-b + root) / (2 * a));
+        }
+
+        far = alignZero(far);
+        if (alignZero(far - near) <= 0 || far <= 0) return null;
+        Span span = SPANS.get();
+        span.near = alignZero(near);
+        span.far = far;
+        return span;
+    }
+
+    @Override
+    public Vector getNormal(Point point) {
+        Point base = axis.getHead();
+        Vector v = axis.getDirection();
+        // the point relative to the center of the lower base - its height along the
+        // axis and its distance from the axis
+        double px = point.getX() - base.getX(), py = point.getY() - base.getY(), pz = point.getZ() - base.getZ();
+        double t = px * v.getX() + py * v.getY() + pz * v.getZ();
+        double distance = Math.sqrt(Math.max(0, px * px + py * py + pz * pz - t * t));
+        // a point of a hit is only close to the surface, so it belongs to the surface
+        // it is closest to - the side, or the lower base (-v) or the upper one (v)
+        double toBase = Math.min(Math.abs(t), Math.abs(t - height));
+        if (toBase <= Math.abs(distance - radius))
+            return t < height / 2 ? v.scale(-1) : v;
         return super.getNormal(point);
     }
 }
@@ -1,9 +1,12 @@
 package geometries;
 
-import primitives.Point;
+import primitives.Double3;
 import primitives.Ray;
+
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  *Class for a legend of geometries
@@ -11,6 +14,21 @@ import java.util.List;
  */
 public class Geometries extends Intersectable{
     final private List<Intersectable> geometries = new LinkedList<>();
+    /**
+     * the geometries as they are searched when an acceleration structure was built -
+     * the unbounded geometries and the structure, null if no structure was built.
+     * Replaced at once by a new list, so a search that runs meanwhile sees either
+     * the old structure or the new one
+     */
+    private volatile List<Intersectable> accelerated = null;
+    /** amount of times geometries were added, to tell whether a structure is up to date */
+    private int modifications = 0;
+    /** the box surrounding all the bounded geometries */
+    private BoundingBox box = null;
+    /** true if one of the geometries has no bounding box */
+    private boolean unbounded = false;
+    /** metrics of the bounding volume hierarchy, null if it wasn't built */
+    private BVHBuilder.Statistics bvhStatistics = null;
 
     /**
      * ctor
@@ -27,18 +45,127 @@ public class Geometries extends Intersectable{
     }
 
     /**
-     * Add geometries to list
+     * Add geometries to list. An acceleration structure that was built before is
+     * dropped, and has to be built again
      * @param geometries an unknown number of geometries
      */
     public void add(Intersectable... geometries) {
-        this.geometries.addAll(List.of(geometries));
+        accelerated = null;
+        bvhStatistics = null;
+        ++modifications;
+        for (Intersectable geometry : geometries) {
+            this.geometries.add(geometry);
+            BoundingBox geometryBox = geometry.getBoundingBox();
+            if (geometryBox == null)
+                unbounded = true;
+            else
+                box = box == null ? geometryBox : box.union(geometryBox);
+        }
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return unbounded ? null : box;
+    }
+
+    /**
+     * getter for the amount of times geometries were added - an acceleration
+     * structure built before the last addition isn't up to date
+     * @return the amount of additions
+     */
+    public int getModifications() {
+        return modifications;
+    }
+
+    /**
+     * The geometries as they are searched - the acceleration structure if one was built
+     * @return the searched geometries
+     */
+    private List<Intersectable> searched() {
+        List<Intersectable> structure = accelerated;
+        return structure != null ? structure : geometries;
+    }
+
+    /**
+     * Arranges the geometries in a bounding volume hierarchy (BVH) built in
+     * {@link BVHBuilder.Mode#QUALITY} mode
+     * @return this
+     */
+    public Geometries buildBVH() {
+        return buildBVH(BVHBuilder.Mode.QUALITY);
+    }
+
+    /**
+     * Arranges the geometries in a bounding volume hierarchy (BVH): the bounded
+     * geometries are recursively split into groups, so a ray only visits the
+     * groups whose boxes it hits. Unbounded geometries (e.g. planes) are searched
+     * besides the hierarchy. Should be called after all the geometries were added
+     * @param mode the build mode - fast build or high quality tree
+     * @return this
+     */
+    public Geometries buildBVH(BVHBuilder.Mode mode) {
+        BVHBuilder builder = new BVHBuilder(mode);
+        accelerate(builder::build);
+        bvhStatistics = builder.getStatistics();
+        return this;
+    }
+
+    /**
+     * Arranges the geometries in a uniform grid: the box of the bounded geometries
+     * is divided into equal cells, and a ray visits only the cells it crosses.
+     * Suits dense and evenly distributed geometries better than a hierarchy.
+     * Unbounded geometries (e.g. planes) are searched besides the grid.
+     * Should be called after all the geometries were added
+     * @return this
+     */
+    public Geometries buildGrid() {
+        accelerate(Grid::new);
+        bvhStatistics = null;
+        return this;
+    }
+
+    /**
+     * Drops the acceleration structure, so the geometries are searched one by one
+     * @return this
+     */
+    public Geometries clearAccelerator() {
+        accelerated = null;
+        bvhStatistics = null;
+        return this;
+    }
+
+    /**
+     * Builds an acceleration structure over the bounded geometries, to be searched
+     * together with the unbounded ones
+     * @param structure builder of the structure from the bounded geometries
+     */
+    private void accelerate(Function<List<Intersectable>, Intersectable> structure) {
+        List<Intersectable> bounded = new ArrayList<>();
+        List<Intersectable> infinite = new LinkedList<>();
+        for (Intersectable geometry : geometries)
+            (geometry.getBoundingBox() == null ? infinite : bounded).add(geometry);
+        if (bounded.size() <= 1) {
+            accelerated = null;
+            return;
+        }
+        infinite.add(structure.apply(bounded));
+        accelerated = infinite;
+    }
+
+    /**
+     * getter for the build time and quality metrics of the hierarchy
+     * @return the statistics of the last {@link #buildBVH(BVHBuilder.Mode)}, or null if it wasn't built
+     */
+    public BVHBuilder.Statistics getBVHStatistics() {
+        return bvhStatistics;
     }
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
         List<GeoPoint> result = null;
         List<GeoPoint> toAdd = null;
-        for (Intersectable geo : geometries) {
+        for (Intersectable geo : searched()) {
+            // geometries (or whole sub-trees) whose box the ray misses are skipped by their own box test
             toAdd = geo.findGeoIntersections(ray);
             if (toAdd != null) {
                 if(result==null) {
@@ -50,4 +177,31 @@ public class Geometries extends Intersectable{
         return result;
     }
 
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        for (Intersectable geo : searched()) {
+            ktr = geo.findTransmittance(ray, maxDistance, ktr, minK);
+            if (ktr.lowerThan(minK)) return Double3.ZERO; // the light is blocked - no need to look further
+        }
+        return ktr;
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, Hit hit) {
+        boolean found = false;
+        // each geometry gets the closest intersection found so far,
+        // so it rejects anything farther without collecting it
+        for (Intersectable geo : searched())
+            found |= geo.findClosestHit(ray, hit);
+        return found;
+    }
+
+    @Override
+    public boolean findClosestHits(Ray[] rays, Hit[] hits, int count) {
+        boolean found = false;
+        for (Intersectable geo : searched())
+            found |= geo.findClosestHits(rays, hits, count);
+        return found;
+    }
+
 }
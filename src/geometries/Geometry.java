@@ -1,6 +1,7 @@
 package geometries;
 
 import primitives.Color;
+import primitives.Double3;
 import primitives.Material;
 import primitives.Point;
 import primitives.Vector;
@@ -12,7 +13,23 @@ public abstract class Geometry extends Intersectable {
 
     protected Color emission = Color.BLACK;
 
-    private Material material = new Material();
+    private Material material;
+
+    /**
+     * ctor - a geometry of the default material and no emission
+     */
+    protected Geometry() {
+        material = new Material();
+    }
+
+    /**
+     * ctor for a part of another geometry, which shares its material and emission
+     * @param whole the geometry that the new one is a part of
+     */
+    Geometry(Geometry whole) {
+        material = whole.material;
+        emission = whole.emission;
+    }
 
     public Material getMaterial() {
         return material;
@@ -29,6 +46,17 @@ public abstract class Geometry extends Intersectable {
         return this;
     }
 
+    /**
+     * Lets light pass through the geometry once
+     * @param ktr  the transparency factor of the intersections before the geometry
+     * @param minK the transparency below which the light is considered blocked
+     * @return the transparency factor after the geometry, Double3.ZERO if the light is blocked
+     */
+    Double3 passLight(Double3 ktr, double minK) {
+        ktr = ktr.product(material.kT);
+        return ktr.lowerThan(minK) ? Double3.ZERO : ktr;
+    }
+
     /**
      * getter for emission field
      * @return {@link  Color} of the shape
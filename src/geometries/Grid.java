@@ -0,0 +1,304 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Uniform grid acceleration structure - an alternative to {@link BVH} for
+ * dense, evenly distributed geometries.<br/>
+ * The box of the geometries is divided into equal cells, each cell keeps the
+ * geometries whose boxes overlap it, and a ray walks only the cells it crosses
+ * (3D-DDA). A geometry that spans several cells is intersected only once per
+ * ray, thanks to a per-thread mailbox
+ * @author Michal and Tamar
+ */
+final class Grid extends Intersectable {
+    /** amount of cells per geometry */
+    private static final double DENSITY = 3;
+    /** maximal amount of cells along an axis */
+    private static final int MAX_RESOLUTION = 128;
+
+    /** the geometries */
+    private final Intersectable[] geometries;
+    /** box of the grid */
+    private final BoundingBox box;
+    /** amount of cells along each axis */
+    private final int resX, resY, resZ;
+    /** size of a cell along each axis */
+    private final double cellX, cellY, cellZ;
+    /** start of each cell's geometries in cellItems, and the end of the last cell */
+    private final int[] cellStart;
+    /** indices of the geometries of all the cells, cell after cell */
+    private final int[] cellItems;
+    /** traversal state of each thread */
+    private final ThreadLocal<Walker> walkers;
+
+    /**
+     * Builds the grid
+     * @param geometries the geometries, all of them must have a bounding box
+     */
+    Grid(List<Intersectable> geometries) {
+        if (geometries.isEmpty())
+            throw new IllegalArgumentException("Can't build a grid without geometries");
+        this.geometries = geometries.toArray(new Intersectable[0]);
+        int size = this.geometries.length;
+        BoundingBox gridBox = this.geometries[0].getBoundingBox();
+        for (Intersectable geometry : this.geometries)
+            gridBox = gridBox.union(geometry.getBoundingBox());
+        box = gridBox;
+
+        // choose cubic-like cells so that there are about DENSITY cells per geometry
+        double dx = box.maxX - box.minX, dy = box.maxY - box.minY, dz = box.maxZ - box.minZ;
+        int dimensions = (dx > 0 ? 1 : 0) + (dy > 0 ? 1 : 0) + (dz > 0 ? 1 : 0);
+        double measure = (dx > 0 ? dx : 1) * (dy > 0 ? dy : 1) * (dz > 0 ? dz : 1);
+        double cellsPerUnit = dimensions == 0 ? 0 : Math.pow(DENSITY * size / measure, 1d / dimensions);
+        resX = resolution(dx, cellsPerUnit);
+        resY = resolution(dy, cellsPerUnit);
+        resZ = resolution(dz, cellsPerUnit);
+        cellX = dx > 0 ? dx / resX : 1;
+        cellY = dy > 0 ? dy / resY : 1;
+        cellZ = dz > 0 ? dz / resZ : 1;
+
+        // count the geometries of each cell, then fill them in
+        int cells = resX * resY * resZ;
+        cellStart = new int[cells + 1];
+        int[][] ranges = new int[size][];
+        for (int i = 0; i < size; ++i) {
+            ranges[i] = cellRange(this.geometries[i].getBoundingBox());
+            int[] r = ranges[i];
+            for (int z = r[2]; z <= r[5]; ++z)
+                for (int y = r[1]; y <= r[4]; ++y)
+                    for (int x = r[0]; x <= r[3]; ++x)
+                        ++cellStart[cellIndex(x, y, z) + 1];
+        }
+        for (int c = 0; c < cells; ++c)
+            cellStart[c + 1] += cellStart[c];
+        cellItems = new int[cellStart[cells]];
+        int[] fill = new int[cells];
+        for (int i = 0; i < size; ++i) {
+            int[] r = ranges[i];
+            for (int z = r[2]; z <= r[5]; ++z)
+                for (int y = r[1]; y <= r[4]; ++y)
+                    for (int x = r[0]; x <= r[3]; ++x) {
+                        int cell = cellIndex(x, y, z);
+                        cellItems[cellStart[cell] + fill[cell]++] = i;
+                    }
+        }
+        walkers = ThreadLocal.withInitial(Walker::new);
+    }
+
+    /**
+     * Amount of cells along an axis
+     * @param extent       length of the grid along the axis
+     * @param cellsPerUnit amount of cells per length unit
+     * @return the amount of cells
+     */
+    private static int resolution(double extent, double cellsPerUnit) {
+        if (extent <= 0) return 1;
+        return (int) Math.max(1, Math.min(MAX_RESOLUTION, Math.ceil(extent * cellsPerUnit)));
+    }
+
+    /**
+     * Range of cells overlapped by a box - slightly enlarged, so a geometry
+     * touching a cell's border is kept in both cells
+     * @param geometryBox the box
+     * @return minimal and maximal cell coordinates along x,y,z
+     */
+    private int[] cellRange(BoundingBox geometryBox) {
+        return new int[]{
+                cell(geometryBox.minX - box.minX, cellX, resX, -1e-9),
+                cell(geometryBox.minY - box.minY, cellY, resY, -1e-9),
+                cell(geometryBox.minZ - box.minZ, cellZ, resZ, -1e-9),
+                cell(geometryBox.maxX - box.minX, cellX, resX, 1e-9),
+                cell(geometryBox.maxY - box.minY, cellY, resY, 1e-9),
+                cell(geometryBox.maxZ - box.minZ, cellZ, resZ, 1e-9)};
+    }
+
+    /**
+     * Cell coordinate along an axis
+     * @param offset     distance from the grid's minimal corner along the axis
+     * @param cellSize   size of a cell along the axis
+     * @param resolution amount of cells along the axis
+     * @param epsilon    relative widening of the offset
+     * @return the cell coordinate, clamped to the grid
+     */
+    private static int cell(double offset, double cellSize, int resolution, double epsilon) {
+        int c = (int) Math.floor(offset / cellSize + epsilon);
+        return c < 0 ? 0 : c >= resolution ? resolution - 1 : c;
+    }
+
+    /**
+     * Index of a cell in cellStart
+     * @param x cell coordinate along x
+     * @param y cell coordinate along y
+     * @param z cell coordinate along z
+     * @return the cell index
+     */
+    private int cellIndex(int x, int y, int z) {
+        return (z * resY + y) * resX + x;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Walker walker = walkers.get();
+        if (!walker.start(ray)) return null;
+        List<GeoPoint> result = null;
+        do {
+            for (int i = cellStart[walker.cell]; i < cellStart[walker.cell + 1]; ++i) {
+                int geometry = cellItems[i];
+                if (!walker.firstVisit(geometry)) continue;
+                List<GeoPoint> toAdd = geometries[geometry].findGeoIntersections(ray);
+                if (toAdd != null) {
+                    if (result == null)
+                        result = new LinkedList<>();
+                    result.addAll(toAdd);
+                }
+            }
+        } while (walker.advance(Double.POSITIVE_INFINITY));
+        return result;
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, Hit hit) {
+        Walker walker = walkers.get();
+        if (!walker.start(ray)) return false;
+        boolean found = false;
+        // the cells are visited by their distance, so once the ray leaves the current
+        // cell after the closest intersection, the next cells can't hold a closer one
+        do {
+            for (int i = cellStart[walker.cell]; i < cellStart[walker.cell + 1]; ++i) {
+                int geometry = cellItems[i];
+                if (walker.firstVisit(geometry))
+                    found |= geometries[geometry].findClosestHit(ray, hit);
+            }
+        } while (walker.advance(hit.t));
+        return found;
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        Walker walker = walkers.get();
+        if (!walker.start(ray)) return ktr;
+        do {
+            for (int i = cellStart[walker.cell]; i < cellStart[walker.cell + 1]; ++i) {
+                int geometry = cellItems[i];
+                if (!walker.firstVisit(geometry)) continue;
+                ktr = geometries[geometry].findTransmittance(ray, maxDistance, ktr, minK);
+                if (ktr.lowerThan(minK)) return Double3.ZERO; // the light is blocked
+            }
+        } while (walker.advance(maxDistance));
+        return ktr;
+    }
+
+    /**
+     * Traversal state of a thread: the current cell of the ray's 3D-DDA walk, and a
+     * mailbox that remembers which geometries were already intersected by the ray
+     */
+    private final class Walker {
+        /** id of the last ray that intersected each geometry */
+        private final int[] rayIds = new int[geometries.length];
+        /** id of the current ray */
+        private int rayId = 0;
+        /** index of the current cell */
+        int cell;
+        /** cell coordinates */
+        private int x, y, z;
+        /** step direction along each axis */
+        private int stepX, stepY, stepZ;
+        /** distance between two cell borders along each axis */
+        private double deltaX, deltaY, deltaZ;
+        /** distance to the next cell border along each axis */
+        private double nextX, nextY, nextZ;
+
+        /**
+         * Starts walking a ray - from the cell where it enters the grid (or of its
+         * head, if it starts inside)
+         * @param ray the ray
+         * @return false if the ray misses the grid
+         */
+        boolean start(Ray ray) {
+            Point head = ray.getHead();
+            Vector dir = ray.getDirection();
+            double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+            double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+
+            double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+            double tx1 = (box.minX - ox) * invX, tx2 = (box.maxX - ox) * invX;
+            double ty1 = (box.minY - oy) * invY, ty2 = (box.maxY - oy) * invY;
+            double tz1 = (box.minZ - oz) * invZ, tz2 = (box.maxZ - oz) * invZ;
+            double tEnter = Math.max(Math.max(Math.max(Math.min(tx1, tx2), Math.min(ty1, ty2)), Math.min(tz1, tz2)), 0);
+            double tExit = Math.min(Math.min(Math.max(tx1, tx2), Math.max(ty1, ty2)), Math.max(tz1, tz2));
+            if (!(tEnter <= tExit)) return false;
+
+            // the cell of the entry point, the step direction along each axis,
+            // the distance to the next cell border and between two borders
+            x = cell(ox + dx * tEnter - box.minX, cellX, resX, 0);
+            y = cell(oy + dy * tEnter - box.minY, cellY, resY, 0);
+            z = cell(oz + dz * tEnter - box.minZ, cellZ, resZ, 0);
+            stepX = dx > 0 ? 1 : -1;
+            stepY = dy > 0 ? 1 : -1;
+            stepZ = dz > 0 ? 1 : -1;
+            deltaX = Math.abs(cellX * invX);
+            deltaY = Math.abs(cellY * invY);
+            deltaZ = Math.abs(cellZ * invZ);
+            nextX = dx == 0 ? Double.POSITIVE_INFINITY : (box.minX + (x + (dx > 0 ? 1 : 0)) * cellX - ox) * invX;
+            nextY = dy == 0 ? Double.POSITIVE_INFINITY : (box.minY + (y + (dy > 0 ? 1 : 0)) * cellY - oy) * invY;
+            nextZ = dz == 0 ? Double.POSITIVE_INFINITY : (box.minZ + (z + (dz > 0 ? 1 : 0)) * cellZ - oz) * invZ;
+            cell = cellIndex(x, y, z);
+
+            if (++rayId == 0) { // the ids wrapped around - forget all the old rays
+                Arrays.fill(rayIds, 0);
+                rayId = 1;
+            }
+            return true;
+        }
+
+        /**
+         * Marks a geometry as intersected by the current ray
+         * @param geometry index of the geometry
+         * @return false if the geometry was already intersected by the ray
+         */
+        boolean firstVisit(int geometry) {
+            if (rayIds[geometry] == rayId) return false;
+            rayIds[geometry] = rayId;
+            return true;
+        }
+
+        /**
+         * Steps into the neighbour cell across the nearest border
+         * @param maxDistance the distance beyond which there is nothing to look for
+         * @return false if the ray leaves the grid, or enters the next cell after maxDistance
+         */
+        boolean advance(double maxDistance) {
+            if (nextX <= nextY && nextX <= nextZ) {
+                if (nextX > maxDistance) return false;
+                x += stepX;
+                if (x < 0 || x >= resX) return false;
+                nextX += deltaX;
+            } else if (nextY <= nextZ) {
+                if (nextY > maxDistance) return false;
+                y += stepY;
+                if (y < 0 || y >= resY) return false;
+                nextY += deltaY;
+            } else {
+                if (nextZ > maxDistance) return false;
+                z += stepZ;
+                if (z < 0 || z >= resZ) return false;
+                nextZ += deltaZ;
+            }
+            cell = cellIndex(x, y, z);
+            return true;
+        }
+    }
+}
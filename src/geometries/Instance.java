@@ -0,0 +1,190 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A copy of shared geometries placed in the scene by an affine transformation.<br/>
+ * The geometries (and their acceleration structure, if one was built) are kept
+ * once in object space, and any number of instances refer to them: a ray is
+ * brought into object space, intersected there, and its intersections are
+ * brought back. The geometry of an intersection is a light-weight proxy of the
+ * intersected geometry, which shares its material and emission and transforms
+ * its normal into the scene
+ * @author Michal and Tamar
+ */
+public class Instance extends Intersectable {
+    /** the shared geometries, in object space */
+    private final Intersectable geometries;
+    /** the transformation from object space into the scene */
+    private final Transform toWorld;
+    /** the transformation from the scene into object space */
+    private final Transform toObject;
+    /** box of the transformed geometries, null if they are unbounded */
+    private final BoundingBox box;
+
+    /**
+     * ctor
+     * @param geometries the shared geometries
+     * @param transform  the transformation that places them in the scene
+     * @throws IllegalArgumentException if the transformation can't be inverted
+     */
+    public Instance(Intersectable geometries, Transform transform) {
+        this.geometries = geometries;
+        this.toWorld = transform;
+        this.toObject = transform.inverse();
+
+        // the box surrounds the transformed corners of the geometries' box
+        BoundingBox objectBox = geometries.getBoundingBox();
+        if (objectBox == null) {
+            box = null;
+            return;
+        }
+        BoundingBox result = null;
+        for (int corner = 0; corner < 8; ++corner) {
+            Point p = transform.transform(new Point(
+                    (corner & 1) == 0 ? objectBox.minX : objectBox.maxX,
+                    (corner & 2) == 0 ? objectBox.minY : objectBox.maxY,
+                    (corner & 4) == 0 ? objectBox.minZ : objectBox.maxZ));
+            BoundingBox pointBox = new BoundingBox(p.getX(), p.getY(), p.getZ(), p.getX(), p.getY(), p.getZ());
+            result = result == null ? pointBox : result.union(pointBox);
+        }
+        box = result;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    /**
+     * Brings a ray into object space
+     * @param ray       the ray in the scene
+     * @param direction the ray's direction in object space, not normalized
+     * @return the ray in object space
+     */
+    private Ray toObject(Ray ray, Vector direction) {
+        return new Ray(toObject.transform(ray.getHead()), direction);
+    }
+
+    /**
+     * Wraps a geometry of the shared geometries for the scene
+     * @param geometry the geometry, in object space
+     * @return the geometry as a geometry of the instance
+     */
+    Geometry wrap(Geometry geometry) {
+        return new Transformed(this, geometry);
+    }
+
+    /**
+     * Brings the intersections of a ray with geometries in object space into the scene
+     * @param found     the intersections in object space, null if there are none
+     * @param objectRay the ray in object space
+     * @param scale     the length of a unit of the scene's ray parameter in object space
+     * @param geometry  the geometry of the intersections in the scene, null to wrap
+     *                  the geometry of each intersection
+     * @return the intersections in the scene, null if there are none
+     */
+    private List<GeoPoint> toWorld(List<GeoPoint> found, Ray objectRay, double scale, Geometry geometry) {
+        if (found == null)
+            return null;
+        List<GeoPoint> result = new LinkedList<>();
+        for (GeoPoint gp : found)
+            result.add(new GeoPoint(geometry == null ? wrap(gp.geometry) : geometry, toWorld.transform(gp.point),
+                    gp.distance(objectRay) / scale));
+        return result;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        // distances along the ray are multiplied by the length of its transformed direction
+        Vector direction = toObject.transformDirection(ray.getDirection());
+        Ray objectRay = toObject(ray, direction);
+        return toWorld(geometries.findGeoIntersections(objectRay), objectRay, direction.length(), null);
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, Hit hit) {
+        // the search goes on in object space with the closest distance in object units
+        Vector direction = toObject.transformDirection(ray.getDirection());
+        double scale = direction.length();
+        double t = hit.t;
+        hit.t = t * scale;
+        if (!geometries.findClosestHit(toObject(ray, direction), hit)) {
+            hit.t = t;
+            return false;
+        }
+        hit.t /= scale;
+        // the geometry is wrapped only for the closest hit of the whole search, except
+        // for a hit in an instance inside this one, which is wrapped for it now
+        if (hit.instance != null)
+            hit.geometry = hit.instance.wrap(hit.geometry);
+        hit.instance = this;
+        return true;
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        Vector direction = toObject.transformDirection(ray.getDirection());
+        return geometries.findTransmittance(toObject(ray, direction), maxDistance * direction.length(), ktr, minK);
+    }
+
+    /**
+     * A geometry of an instance as the geometry of an intersection - it shares the
+     * original geometry's material and emission and transforms its normal
+     */
+    private static final class Transformed extends Geometry {
+        /** the instance */
+        private final Instance instance;
+        /** the original geometry, in object space */
+        private final Geometry original;
+
+        /**
+         * ctor
+         * @param instance the instance
+         * @param original the original geometry
+         */
+        Transformed(Instance instance, Geometry original) {
+            super(original);
+            this.instance = instance;
+            this.original = original;
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            // normals are transformed by the transpose of the inverse transformation
+            Vector normal = original.getNormal(instance.toObject.transform(point));
+            return instance.toObject.transformNormal(normal);
+        }
+
+        @Override
+        public BoundingBox getBoundingBox() {
+            return instance.box;
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+            // only the original geometry is intersected, on the ray in object space
+            Vector direction = instance.toObject.transformDirection(ray.getDirection());
+            Ray objectRay = instance.toObject(ray, direction);
+            return instance.toWorld(original.findGeoIntersections(objectRay), objectRay, direction.length(), this);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            return obj instanceof Transformed other && other.instance == instance && other.original.equals(original);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(instance) * 31 + original.hashCode();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package geometries;
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static primitives.Util.*;
@@ -27,6 +29,10 @@ public abstract class Intersectable {
      * @return a list of all intersections points
      */
     public  List<GeoPoint> findGeoIntersections(Ray ray) {
+        // cheap rejection of rays that miss the box surrounding the geometry
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray))
+            return null;
         return findGeoIntersectionsHelper(ray);
     }
 
@@ -37,6 +43,272 @@ public abstract class Intersectable {
      */
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray);
 
+    /**
+     * function that returns the closest intersection of a ray with the geometry
+     * @param ray the ray to check for intersections
+     * @return the closest intersection point, or null if there is none
+     */
+    public GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * function that returns the closest intersection of a ray with the geometry,
+     * which is not farther than a given distance from the ray's head.
+     * The search is done with the thread's {@link Hit} record, and the intersection
+     * point is created only for the closest intersection
+     * @param ray         the ray to check for intersections
+     * @param maxDistance the maximal distance of the intersection from the ray's head
+     * @return the closest intersection point, or null if there is none up to maxDistance
+     */
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        Hit hit = HITS.get().reset(maxDistance);
+        return findClosestHit(ray, hit) ? new GeoPoint(hit.getGeometry(), ray.getPoint(hit.t), hit.t) : null;
+    }
+
+    /**
+     * function that looks for an intersection of a ray with the geometry, which is
+     * closer to the ray's head than the hit recorded so far
+     * @param ray the ray to check for intersections
+     * @param hit the closest intersection so far, updated if a closer one is found
+     * @return true if a closer intersection was found
+     */
+    public boolean findClosestHit(Ray ray, Hit hit) {
+        // cheap rejection of rays that miss the box or reach it only after the recorded hit
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, hit.t))
+            return false;
+        return findClosestHitHelper(ray, hit);
+    }
+
+    /**
+     * function that returns the closest intersections of a beam of rays with the
+     * geometry. The rays are traced in packets of up to {@link #PACKET_SIZE} rays,
+     * so that structures like a bounding volume hierarchy can test each node's box
+     * for the whole packet at once. Works best for coherent rays, e.g. the rays
+     * through the same pixel
+     * @param rays the rays to check for intersections
+     * @return the closest intersection of each ray (null for a ray without intersections)
+     */
+    public List<GeoPoint> findClosestGeoIntersections(List<Ray> rays) {
+        Hit[] hits = PACKET_HITS.get();
+        Ray[] packet = new Ray[PACKET_SIZE];
+        List<GeoPoint> result = new ArrayList<>(rays.size());
+        int count = 0;
+        for (Ray ray : rays) {
+            packet[count] = ray;
+            hits[count].reset(Double.POSITIVE_INFINITY);
+            if (++count == PACKET_SIZE) {
+                addClosestGeoIntersections(packet, hits, count, result);
+                count = 0;
+            }
+        }
+        if (count > 0)
+            addClosestGeoIntersections(packet, hits, count, result);
+        return result;
+    }
+
+    /**
+     * Traces a packet of rays and adds their closest intersections to a list
+     * @param rays   the rays
+     * @param hits   the hit records of the rays, already reset
+     * @param count  amount of rays in the packet
+     * @param result the list to add the intersections to
+     */
+    private void addClosestGeoIntersections(Ray[] rays, Hit[] hits, int count, List<GeoPoint> result) {
+        findClosestHits(rays, hits, count);
+        for (int i = 0; i < count; ++i)
+            result.add(hits[i].geometry == null ? null
+                    : new GeoPoint(hits[i].getGeometry(), rays[i].getPoint(hits[i].t), hits[i].t));
+    }
+
+    /**
+     * function that looks for intersections of a packet of rays with the geometry,
+     * each closer to its ray's head than the hit recorded for the ray so far.
+     * By default, the rays are traced one by one
+     * @param rays  the rays - up to {@link #PACKET_SIZE} of them
+     * @param hits  the closest intersection of each ray so far, updated if a closer one is found
+     * @param count amount of rays in the packet
+     * @return true if a closer intersection was found for any of the rays
+     */
+    public boolean findClosestHits(Ray[] rays, Hit[] hits, int count) {
+        boolean found = false;
+        for (int i = 0; i < count; ++i)
+            found |= findClosestHit(rays[i], hits[i]);
+        return found;
+    }
+
+    /**
+     * helper function that looks for an intersection of a ray closer than the
+     * recorded hit. By default, it goes over all the intersections - a geometry
+     * (or a group of geometries) should override it when it can reject farther
+     * intersections without finding them all
+     * @param ray the ray to check for intersections
+     * @param hit the closest intersection so far, updated if a closer one is found
+     * @return true if a closer intersection was found
+     */
+    protected boolean findClosestHitHelper(Ray ray, Hit hit) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray);
+        if (intersections == null)
+            return false;
+        boolean found = false;
+        for (GeoPoint gp : intersections)
+            found |= hit.update(gp.distance(ray), gp.geometry);
+        return found;
+    }
+
+    /**
+     * function that calculates how much light passes along a ray up to a given
+     * distance (e.g. the distance of a light source) - the product of the
+     * transparency factors (kT) of all the intersections on the way.
+     * Stops as soon as the light is blocked
+     * @param ray         the ray from the lit point towards the light
+     * @param maxDistance the maximal distance of an intersection from the ray's head
+     * @param minK        the transparency below which the light is considered blocked
+     * @return the transparency factor, Double3.ZERO if the light is blocked
+     */
+    public Double3 findTransmittance(Ray ray, double maxDistance, double minK) {
+        return findTransmittance(ray, maxDistance, Double3.ONE, minK);
+    }
+
+    /**
+     * function that multiplies a transparency factor by the transparency of the
+     * intersections along a ray up to a given distance
+     * @param ray         the ray from the lit point towards the light
+     * @param maxDistance the maximal distance of an intersection from the ray's head
+     * @param ktr         the transparency factor of the intersections found so far
+     * @param minK        the transparency below which the light is considered blocked
+     * @return the transparency factor, Double3.ZERO if the light is blocked
+     */
+    protected Double3 findTransmittance(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        // geometries that the ray reaches only beyond maxDistance don't block anything
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance))
+            return ktr;
+        return findTransmittanceHelper(ray, maxDistance, ktr, minK);
+    }
+
+    /**
+     * helper function that multiplies a transparency factor by the transparency of
+     * the intersections along a ray up to a given distance. By default, it goes over
+     * all the intersections - a geometry (or a group of geometries) should override
+     * it when it can skip the intersections beyond maxDistance
+     * @param ray         the ray from the lit point towards the light
+     * @param maxDistance the maximal distance of an intersection from the ray's head
+     * @param ktr         the transparency factor of the intersections found so far
+     * @param minK        the transparency below which the light is considered blocked
+     * @return the transparency factor, Double3.ZERO if the light is blocked
+     */
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray);
+        if (intersections == null)
+            return ktr;
+        for (GeoPoint gp : intersections)
+            if (alignZero(gp.distance(ray) - maxDistance) <= 0) {
+                ktr = gp.geometry.passLight(ktr, minK);
+                if (ktr == Double3.ZERO) return ktr;
+            }
+        return ktr;
+    }
+
+    /**
+     * getter for the axis-aligned box surrounding the geometry
+     * @return the bounding box, or null if the geometry is unbounded (e.g. a plane)
+     */
+    public abstract BoundingBox getBoundingBox();
+
+    /** maximal amount of rays traced together by {@link #findClosestHits(Ray[], Hit[], int)} */
+    public static final int PACKET_SIZE = 16;
+    /** the hit record of each thread, used by {@link #findClosestGeoIntersection(Ray, double)} */
+    private static final ThreadLocal<Hit> HITS = ThreadLocal.withInitial(Hit::new);
+    /** the hit records of a packet for each thread, used by {@link #findClosestGeoIntersections(List)} */
+    private static final ThreadLocal<Hit[]> PACKET_HITS = ThreadLocal.withInitial(() -> {
+        Hit[] hits = new Hit[PACKET_SIZE];
+        for (int i = 0; i < PACKET_SIZE; ++i)
+            hits[i] = new Hit();
+        return hits;
+    });
+
+    /**
+     * Mutable record of the closest intersection found so far by a ray, reused
+     * for many rays so that looking for the closest intersection doesn't create
+     * an object per candidate intersection
+     */
+    public static final class Hit {
+        /** distance of the intersection from the ray's head (the ray parameter) */
+        public double t;
+        /** the intersected geometry, null if nothing was found yet */
+        public Geometry geometry;
+        /** barycentric coordinates of the intersection, NaN if the geometry doesn't calculate them */
+        public double u, v;
+        /**
+         * the instance in whose object space the geometry was hit, null if it is in
+         * the scene - the geometry is wrapped for the scene only by {@link #getGeometry()}
+         */
+        public Instance instance;
+
+        /**
+         * Prepares the record for a new ray
+         * @param maxDistance the maximal distance of the intersection from the ray's head
+         * @return this
+         */
+        public Hit reset(double maxDistance) {
+            t = maxDistance;
+            geometry = null;
+            u = v = Double.NaN;
+            instance = null;
+            return this;
+        }
+
+        /**
+         * The intersected geometry in the scene - a geometry hit in an instance's
+         * object space is wrapped here, so only the closest hit is wrapped
+         * @return the geometry, null if nothing was found
+         */
+        public Geometry getGeometry() {
+            return instance == null || geometry == null ? geometry : instance.wrap(geometry);
+        }
+
+        /**
+         * Checks whether an intersection at a given distance is closer than the
+         * recorded one. The first intersection may lay exactly at the maximal distance
+         * @param distance distance of the intersection from the ray's head, NaN (no
+         *                 intersection) is never closer
+         * @return true if the intersection is closer
+         */
+        public boolean isCloser(double distance) {
+            return geometry == null ? alignZero(distance - t) <= 0 : distance < t;
+        }
+
+        /**
+         * Records an intersection if it is closer than the recorded one
+         * @param distance distance of the intersection from the ray's head
+         * @param geometry the intersected geometry
+         * @return true if the intersection was recorded
+         */
+        public boolean update(double distance, Geometry geometry) {
+            return update(distance, geometry, Double.NaN, Double.NaN);
+        }
+
+        /**
+         * Records an intersection if it is closer than the recorded one
+         * @param distance distance of the intersection from the ray's head
+         * @param geometry the intersected geometry
+         * @param u        first barycentric coordinate of the intersection
+         * @param v        second barycentric coordinate of the intersection
+         * @return true if the intersection was recorded
+         */
+        public boolean update(double distance, Geometry geometry, double u, double v) {
+            if (!isCloser(distance)) return false;
+            this.t = distance;
+            this.geometry = geometry;
+            this.u = u;
+            this.v = v;
+            this.instance = null;
+            return true;
+        }
+    }
+
     /**
      * helper class to connect point to Geometry
      */
@@ -51,14 +323,40 @@ public abstract class Intersectable {
          */
         public final Point point;
 
+        /**
+         * distance of the point from the head of the ray that found it (the ray
+         * parameter), NaN if it is unknown
+         */
+        public final double t;
+
         /**
          * constructor
          * @param geometry geometric shape
          * @param point point on/in geometric shape
          */
         public GeoPoint(Geometry geometry, Point point) {
+            this(geometry, point, Double.NaN);
+        }
+
+        /**
+         * constructor
+         * @param geometry geometric shape
+         * @param point    point on/in geometric shape
+         * @param t        distance of the point from the head of the ray that found it
+         */
+        public GeoPoint(Geometry geometry, Point point, double t) {
             this.geometry = geometry;
             this.point = point;
+            this.t = t;
+        }
+
+        /**
+         * Distance of the point from the head of a ray that passes through it
+         * @param ray the ray
+         * @return the known ray parameter, or the distance calculated from the point if it is unknown
+         */
+        public double distance(Ray ray) {
+            return Double.isNaN(t) ? ray.getHead().distance(point) : t;
         }
 
         @Override
@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -42,25 +43,48 @@ public class Plane extends Geometry{
     }
     public Vector getNormal(Point point){ return normal; }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return null; // a plane is unbounded
+    }
+
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        double t = intersectionDistance(ray);
+        return Double.isNaN(t) ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, Hit hit) {
+        // a plane is crossed at most once, so there is nothing closer to look for
+        return hit.update(intersectionDistance(ray), this);
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        return alignZero(intersectionDistance(ray) - maxDistance) <= 0 ? passLight(ktr, minK) : ktr;
+    }
+
+    /**
+     * Calculates where a ray crosses the plane
+     * @param ray the ray
+     * @return distance of the intersection from the ray's head, NaN if there is no intersection
+     */
+    double intersectionDistance(Ray ray) {
         if (ray == null) {//ray cannot be null
             throw new IllegalArgumentException("Ray cannot be null");
         }
-        if (ray.getHead().equals(this.q)) {//start in the plane
-            return null;
-        }
-        //calculate according to the calculation in the course's book
-        Vector rayToNormal = this.q.subtract(ray.getHead());
-        double numerator = this.normal.dotProduct(rayToNormal);
+        //calculate according to the calculation in the course's book, with the vector
+        //from the ray's head to q in plain numbers - a ray that starts on q gets t = 0
+        Point head = ray.getHead();
+        double numerator = this.normal.getX() * (this.q.getX() - head.getX())
+                + this.normal.getY() * (this.q.getY() - head.getY())
+                + this.normal.getZ() * (this.q.getZ() - head.getZ());
         double denominator = this.normal.dotProduct(ray.getDirection());
         if (isZero(denominator)) {
-            return null;
+            return Double.NaN;
         }
         double t = alignZero(numerator / denominator);
-        if (t > 0) {
-            return List.of(new GeoPoint(this, ray.getPoint(t)));
-        }
-        return null;
+        return t > 0 ? t : Double.NaN;
     }
 }
@@ -6,6 +6,7 @@ import java.util.List;
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -22,6 +23,20 @@ public class Polygon extends Geometry {
    protected final Plane       plane;
    /** The size of the polygon - the amount of the vertices in the polygon */
    private final int           size;
+   /** The box surrounding all the vertices of the polygon */
+   private final BoundingBox   box;
+   /**
+    * The axes (0 - x, 1 - y, 2 - z) that remain when the polygon is projected on
+    * the axis plane it is most parallel to - the normal's largest coordinate is
+    * dropped. Unused by a Triangle, which has an intersection test of its own
+    */
+   private final int           axisA, axisB;
+   /**
+    * The edges' line equations in the projection: a point (a,b) is inside the
+    * polygon if edgeA[i]*a + edgeB[i]*b + edgeC[i] > 0 for every edge i.
+    * Null for a Triangle, which has an intersection test of its own
+    */
+   private final double[]      edgeA, edgeB, edgeC;
 
    /**
     * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -49,14 +64,44 @@ public class Polygon extends Geometry {
          throw new IllegalArgumentException("A polygon can't have less than 3 vertices");
       this.vertices = List.of(vertices);
       size          = vertices.length;
+      box           = BoundingBox.of(this.vertices);
 
       // Generate the plane according to the first three vertices and associate the
       // polygon with this plane.
       // The plane holds the invariant normal (orthogonal unit) vector to the polygon
       plane         = new Plane(vertices[0], vertices[1], vertices[2]);
-      if (size == 3) return; // no need for more tests for a Triangle
-
       Vector  n        = plane.getNormal();
+      if (this instanceof Triangle) { // a triangle needs neither the projection nor more tests
+         axisA = axisB = 0;
+         edgeA = edgeB = edgeC = null;
+         return;
+      }
+
+      // Project the polygon on the axis plane where it is largest, and keep its
+      // edges as 2D line equations whose sign is positive inside the polygon
+      double  nx       = Math.abs(n.getX()), ny = Math.abs(n.getY()), nz = Math.abs(n.getZ());
+      int     dropped  = nx >= ny && nx >= nz ? 0 : ny >= nz ? 1 : 2;
+      axisA            = dropped == 0 ? 1 : 0;
+      axisB            = dropped == 2 ? 1 : 2;
+      edgeA            = new double[size];
+      edgeB            = new double[size];
+      edgeC            = new double[size];
+      // the equations are flipped if the projected vertices are ordered clockwise (negative area)
+      double  area     = 0;
+      for (int i = 0; i < size; ++i) {
+         Point from = vertices[i], to = vertices[(i + 1) % size];
+         area += coordinate(from, axisA) * coordinate(to, axisB) - coordinate(to, axisA) * coordinate(from, axisB);
+      }
+      double  sign     = area > 0 ? 1 : -1;
+      for (int i = 0; i < size; ++i) {
+         Point from = vertices[i], to = vertices[(i + 1) % size];
+         double a = coordinate(from, axisA), b = coordinate(from, axisB);
+         edgeA[i] = sign * (b - coordinate(to, axisB));
+         edgeB[i] = sign * (coordinate(to, axisA) - a);
+         edgeC[i] = -(edgeA[i] * a + edgeB[i] * b);
+      }
+      if (size == 3) return; // no need for more tests for three vertices
+
       // Subtracting any subsequent points will throw an IllegalArgumentException
       // because of Zero Vector if they are in the same point
       Vector  edge1    = vertices[vertices.length - 1].subtract(vertices[vertices.length - 2]);
@@ -85,42 +130,59 @@ public class Polygon extends Geometry {
    @Override
    public Vector getNormal(Point point) { return plane.getNormal(); }
 
+   @Override
+   public BoundingBox getBoundingBox() { return box; }
+
 
    @Override
    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-      Vector v1;
-      Vector v2;
-      Vector n;
-      double t;
-      List<GeoPoint> resultPoints = plane.findGeoIntersections(ray);
-      if (resultPoints == null) // In case there is no intersection with the plane return null
+      double distance = plane.intersectionDistance(ray);
+      if (Double.isNaN(distance) || !contains(ray, distance)) // In case there is no intersection return null
          return null;
-      boolean positive = true;
-      boolean negative = true;
-      for (int i = 0; i < vertices.size(); i++) {
-         if (i == vertices.size() - 1) {
-            v1 = vertices.get(i).subtract(ray.getHead());
-            v2 = vertices.get(0).subtract(ray.getHead());
-            n = v1.crossProduct(v2).normalize();
-            t = alignZero(n.dotProduct(ray.getDirection()));
-         } else {
-            v1 = vertices.get(i).subtract(ray.getHead());
-            v2 = vertices.get(i + 1).subtract(ray.getHead());
-            n = v1.crossProduct(v2).normalize();
-            t = alignZero(n.dotProduct(ray.getDirection()));
-         }
-         if (t == 0)
-            return null;
-         if (t * 1 < 0)
-            positive = false;
-         else if (t * -1 < 0)
-            negative = false;
-      }
-      if (negative || positive) {
-         LinkedList<GeoPoint> result = new LinkedList<GeoPoint>();
-         result.add(new GeoPoint(this, resultPoints.get(0).point));
-         return result;
-      }
-      return null;
+      LinkedList<GeoPoint> result = new LinkedList<GeoPoint>();
+      result.add(new GeoPoint(this, ray.getPoint(distance), distance));
+      return result;
+   }
+
+   @Override
+   protected boolean findClosestHitHelper(Ray ray, Hit hit) {
+      // a polygon is crossed at most once - the plane's intersection is rejected
+      // before the test of the edges if it is too far
+      double distance = plane.intersectionDistance(ray);
+      return hit.isCloser(distance) && contains(ray, distance) && hit.update(distance, this);
+   }
+
+   @Override
+   protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+      double distance = plane.intersectionDistance(ray);
+      return alignZero(distance - maxDistance) <= 0 && contains(ray, distance) ? passLight(ktr, minK) : ktr;
+   }
+
+   /**
+    * Checks whether the intersection of a ray with the polygon's plane is inside
+    * the polygon, by the projected edge equations - without creating any object
+    * @param ray      the ray
+    * @param distance distance of the plane's intersection from the ray's head
+    * @return true if the intersection is inside the polygon (not on its edges)
+    */
+   private boolean contains(Ray ray, double distance) {
+      Point  head = ray.getHead();
+      Vector dir  = ray.getDirection();
+      double a    = coordinate(head, axisA) + distance * coordinate(dir, axisA);
+      double b    = coordinate(head, axisB) + distance * coordinate(dir, axisB);
+      for (int i = 0; i < size; ++i)
+         if (edgeA[i] * a + edgeB[i] * b + edgeC[i] <= 0)
+            return false;
+      return true;
+   }
+
+   /**
+    * One coordinate of a point (or vector)
+    * @param  point the point
+    * @param  axis  0 - x, 1 - y, 2 - z
+    * @return       the coordinate
+    */
+   private static double coordinate(Point point, int axis) {
+      return axis == 0 ? point.getX() : axis == 1 ? point.getY() : point.getZ();
    }
 }
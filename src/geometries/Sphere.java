@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -16,6 +17,7 @@ import static primitives.Util.alignZero;
 public class Sphere extends RadialGeometry{
 
     private final Point center;
+    private final BoundingBox box;
 
     /**
      *ctor
@@ -25,6 +27,13 @@ public class Sphere extends RadialGeometry{
     public Sphere(double radius,Point center){
         super(radius);
         this.center=center;
+        this.box = new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
     }
 
     @Override
@@ -73,26 +82,70 @@ public class Sphere extends RadialGeometry{
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Roots roots = solve(ray);
+        if (roots == null) return null;
+        GeoPoint gp2 = new GeoPoint(this, ray.getPoint(roots.second), roots.second);
+        return roots.first <= 0 ? List.of(gp2)
+                : List.of(new GeoPoint(this, ray.getPoint(roots.first), roots.first), gp2);
+    }
 
-        Vector pointToCenter;
-        try {
-            pointToCenter = center.subtract(ray.getHead());
-        } catch (IllegalArgumentException ignore) {
-            return List.of(new GeoPoint(this, ray.getPoint(radius)));
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, Hit hit) {
+        // the first intersection is the closer one, unless it is behind the ray's head
+        Roots roots = solve(ray);
+        return roots != null && hit.update(roots.first <= 0 ? roots.second : roots.first, this);
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        Roots roots = solve(ray);
+        if (roots == null) return ktr;
+        // the light passes the sphere's surface once or twice before the maximal distance
+        if (roots.first > 0 && alignZero(roots.first - maxDistance) <= 0) {
+            ktr = passLight(ktr, minK);
+            if (ktr == Double3.ZERO) return ktr;
         }
+        return alignZero(roots.second - maxDistance) <= 0 ? passLight(ktr, minK) : ktr;
+    }
 
-        double tm = pointToCenter.dotProduct(ray.getDirection());
-        double distanceFromCenterSquared = pointToCenter.dotProduct(pointToCenter) - tm * tm;
-        double thSquared = radius*radius- distanceFromCenterSquared;
-        //check that ray crosses area of sphere, if not then return null
+    /**
+     * The distances of a ray's two intersections with the sphere's surface - one
+     * scratch object per thread, so that solving a ray doesn't create an object
+     */
+    private static final class Roots {
+        /** distance of the first intersection, not positive if it is behind the ray's head */
+        double first;
+        /** distance of the second intersection, always positive */
+        double second;
+    }
+
+    /** the roots of the rays solved by each thread */
+    private static final ThreadLocal<Roots> ROOTS = ThreadLocal.withInitial(Roots::new);
+
+    /**
+     * Solves the ray's quadratic equation with the sphere. The vector from the
+     * ray's head to the center is in plain numbers - a ray that starts at the
+     * center gets tm = 0 and meets the sphere at the radius. Rays that only touch
+     * the sphere don't intersect it
+     * @param ray the ray
+     * @return the two roots in the thread's scratch object, valid until the thread
+     * solves another ray, or null if there are none or if both are behind the ray's head
+     */
+    private Roots solve(Ray ray) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double px = center.getX() - head.getX(), py = center.getY() - head.getY(), pz = center.getZ() - head.getZ();
+        double tm = px * dir.getX() + py * dir.getY() + pz * dir.getZ();
+        double thSquared = radius * radius - (px * px + py * py + pz * pz - tm * tm);
         if (alignZero(thSquared) <= 0) return null;
 
         double th = sqrt(thSquared);
         double secondDistance = tm + th;
         if (alignZero(secondDistance) <= 0) return null;
-        double firstDistance = tm - th;
-        GeoPoint gp2 = new GeoPoint(this, ray.getPoint(secondDistance));
-        return firstDistance <= 0 ? List.of(gp2) : List.of(new GeoPoint(this, ray.getPoint(firstDistance)), gp2);
+        Roots roots = ROOTS.get();
+        roots.first = tm - th;
+        roots.second = secondDistance;
+        return roots;
     }
 }
 
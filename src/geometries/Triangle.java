@@ -1,9 +1,11 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.LinkedList;
 import java.util.List;
 
 import static primitives.Util.alignZero;
@@ -12,6 +14,22 @@ import static primitives.Util.alignZero;
  *A class for representing a triangle
  */
 public class Triangle extends Polygon {
+    /**
+     * Tolerance of the parallel test, relative to the triangle's size - the
+     * determinant of the Möller–Trumbore test is |e1||e2| times sines and cosines
+     * of angles, so it is compared to this part of |e1||e2| (the accuracy of
+     * {@link primitives.Util#isZero(double)})
+     */
+    static final double PARALLEL = 0x1p-40;
+
+    /** the first vertex */
+    private final double v0x, v0y, v0z;
+    /** edge from the first vertex to the second one */
+    private final double e1x, e1y, e1z;
+    /** edge from the first vertex to the third one */
+    private final double e2x, e2y, e2z;
+    /** the largest determinant of a ray parallel to the triangle */
+    private final double minDet;
 
     /**
      *ctor
@@ -21,67 +39,77 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point d1, Point d2, Point d3){
         super(d1,d2,d3);
+        v0x = d1.getX();
+        v0y = d1.getY();
+        v0z = d1.getZ();
+        e1x = d2.getX() - v0x;
+        e1y = d2.getY() - v0y;
+        e1z = d2.getZ() - v0z;
+        e2x = d3.getX() - v0x;
+        e2y = d3.getY() - v0y;
+        e2z = d3.getZ() - v0z;
+        minDet = PARALLEL * Math.sqrt((e1x * e1x + e1y * e1y + e1z * e1z) * (e2x * e2x + e2y * e2y + e2z * e2z));
     }
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        //calculate according to the calculation in the course's book
-        //List<Point> points = super.plane.findIntersections(ray);
-        List<GeoPoint> points = this.plane.findGeoIntersections(ray);
-        if (points == null) //at first find if thar is intersection with the plane of the triangle
+        double distance = intersect(ray, null);
+        if (Double.isNaN(distance))
             return null;
+        LinkedList<GeoPoint> result = new LinkedList<GeoPoint>();
+        result.add(new GeoPoint(this, ray.getPoint(distance), distance));
+        return result;
+    }
 
-        Vector v1 = this.vertices.get(0).subtract(ray.getHead());
-        Vector v2 = this.vertices.get(1).subtract(ray.getHead());
-        Vector v3 = this.vertices.get(2).subtract(ray.getHead());
-        Vector n1 = v1.crossProduct(v2).normalize();
-        Vector n2 = v2.crossProduct(v3).normalize();
-        Vector n3 = v3.crossProduct(v1).normalize();
-        double a = ray.getDirection().dotProduct(n1);
-        double b = ray.getDirection().dotProduct(n2);
-        double c = ray.getDirection().dotProduct(n3);
-        if (a == 0 || b == 0 || c == 0) {
-            return null;
-        }
-        if (a * b > 0 && b * c > 0) {
-            return List.of(new GeoPoint(this, points.get(0).point));
-        }
-        return null;
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, Hit hit) {
+        // the hit has the triangle's distance only if it was recorded now
+        double distance = intersect(ray, hit);
+        return hit.geometry == this && hit.t == distance;
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        return alignZero(intersect(ray, null) - maxDistance) <= 0 ? passLight(ktr, minK) : ktr;
     }
 
     /**
-     * Calculation of intersection with a triangle using the center of gravity of the triangle
-     * @param ray
-     * @param maxDistance
-     * @return
+     * Möller–Trumbore test of a ray against the triangle: the intersection is
+     * solved directly in barycentric coordinates with the precomputed edges,
+     * without the plane's intersection. Intersections on the edges are ignored.
+     * The arithmetic is the same as in {@link TriangleBatch}, so both find the
+     * same intersections
+     * @param ray the ray
+     * @param hit the closest intersection so far, updated with the barycentric
+     *            coordinates if the triangle's intersection is closer, may be null
+     * @return distance of the intersection from the ray's head, NaN if there is none
      */
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-
-        List<Point> intersection = this.plane.findIntersections(ray);
-        if (intersection == null)
-            return null;
-
-        Point p0 = ray.getHead();
-        Vector v = ray.getDirection();
-
-        Vector v1 = vertices.get(0).subtract(p0);
-        Vector v2 = vertices.get(1).subtract(p0);
-        Vector n1 = v1.crossProduct(v2).normalize();
-        double vn1 = alignZero(v.dotProduct(n1));
-        if (vn1 == 0) return null;
-
-        Vector v3 = vertices.get(2).subtract(p0);
-        Vector n2 = v2.crossProduct(v3).normalize();
-        double vn2 = alignZero(v.dotProduct(n2));
-        if (vn1 * vn2 <= 0) return null;
-
-        Vector n3 = v3.crossProduct(v1).normalize();
-        double vn3 = alignZero(v.dotProduct(n3));
-        if (vn1 * vn3 <= 0) return null;
-
-
-        Point intersect = intersection.get(0);
-        return (p0.distance(intersect) - maxDistance <=0) ? List.of(new GeoPoint(this, intersect)) : null;
+    private double intersect(Ray ray, Hit hit) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        // p = d x e2, det = e1 . p - a determinant that is zero for the triangle's
+        // size means the ray is parallel to the triangle
+        double px = dy * e2z - dz * e2y;
+        double py = dz * e2x - dx * e2z;
+        double pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (Math.abs(det) <= minDet) return Double.NaN;
+        double invDet = 1 / det;
+
+        double sx = head.getX() - v0x, sy = head.getY() - v0y, sz = head.getZ() - v0z;
+        double u = (sx * px + sy * py + sz * pz) * invDet;
+        if (u <= 0 || u >= 1) return Double.NaN;
+        double qx = sy * e1z - sz * e1y;
+        double qy = sz * e1x - sx * e1z;
+        double qz = sx * e1y - sy * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * invDet;
+        if (v <= 0 || u + v >= 1) return Double.NaN;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * invDet);
+        if (t <= 0) return Double.NaN;
+        if (hit != null)
+            hit.update(t, this, u, v);
+        return t;
     }
-
 }
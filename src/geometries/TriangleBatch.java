@@ -0,0 +1,146 @@
+package geometries;
+
+import geometries.Intersectable.Hit;
+import primitives.Point;
+
+import static primitives.Util.alignZero;
+
+/**
+ * The triangles among the geometries of an acceleration structure, kept in
+ * structure-of-arrays form: one array per coordinate of the first vertex and
+ * of the two edges leaving it. A ray is tested against a range of them by a
+ * Möller–Trumbore loop that reads consecutive array elements and doesn't
+ * create any object. When the jdk.incubator.vector module is in the boot layer,
+ * the loop runs on vector lanes (see {@link TriangleBatchVector}), several
+ * triangles at once
+ * @author Michal and Tamar
+ */
+final class TriangleBatch {
+    /** whether the Vector API kernel can be used - the module is found at run time */
+    static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /** the triangles, null in the places of other geometries */
+    final Triangle[] triangles;
+    /** first vertex of each triangle, zero in the places of other geometries */
+    final double[] v0x, v0y, v0z;
+    /** edge from the first vertex to the second one, zero in the places of other geometries */
+    final double[] e1x, e1y, e1z;
+    /** edge from the first vertex to the third one, zero in the places of other geometries */
+    final double[] e2x, e2y, e2z;
+    /** the largest determinant of a ray parallel to each triangle, zero in the places of other geometries */
+    final double[] minDet;
+
+    /**
+     * ctor
+     * @param geometries the geometries of the structure, the triangles among them are copied
+     */
+    TriangleBatch(Intersectable[] geometries) {
+        int size = geometries.length;
+        triangles = new Triangle[size];
+        v0x = new double[size];
+        v0y = new double[size];
+        v0z = new double[size];
+        e1x = new double[size];
+        e1y = new double[size];
+        e1z = new double[size];
+        e2x = new double[size];
+        e2y = new double[size];
+        e2z = new double[size];
+        minDet = new double[size];
+        for (int i = 0; i < size; ++i) {
+            // a subclass may intersect differently, so only plain triangles are copied
+            if (geometries[i].getClass() != Triangle.class) continue;
+            Triangle triangle = (Triangle) geometries[i];
+            triangles[i] = triangle;
+            Point v0 = triangle.vertices.get(0);
+            Point v1 = triangle.vertices.get(1);
+            Point v2 = triangle.vertices.get(2);
+            v0x[i] = v0.getX();
+            v0y[i] = v0.getY();
+            v0z[i] = v0.getZ();
+            e1x[i] = v1.getX() - v0x[i];
+            e1y[i] = v1.getY() - v0y[i];
+            e1z[i] = v1.getZ() - v0z[i];
+            e2x[i] = v2.getX() - v0x[i];
+            e2y[i] = v2.getY() - v0y[i];
+            e2z[i] = v2.getZ() - v0z[i];
+            minDet[i] = Triangle.PARALLEL * Math.sqrt((e1x[i] * e1x[i] + e1y[i] * e1y[i] + e1z[i] * e1z[i])
+                    * (e2x[i] * e2x[i] + e2y[i] * e2y[i] + e2z[i] * e2z[i]));
+        }
+    }
+
+    /**
+     * Checks whether a geometry is one of the batch's triangles
+     * @param index index of the geometry
+     * @return true if the geometry is tested by {@link #findClosestHit}
+     */
+    boolean contains(int index) {
+        return triangles[index] != null;
+    }
+
+    /**
+     * Looks for the closest intersection of a ray with the triangles in a range of
+     * geometries, which is closer than the recorded hit. Intersections on the edges
+     * of a triangle are ignored, like in {@link Triangle}
+     * @param from index of the first geometry
+     * @param to   index after the last geometry
+     * @param ox   x of the ray's head
+     * @param oy   y of the ray's head
+     * @param oz   z of the ray's head
+     * @param dx   x of the ray's direction
+     * @param dy   y of the ray's direction
+     * @param dz   z of the ray's direction
+     * @param hit  the closest intersection so far, updated if a closer one is found
+     * @return true if a closer intersection was found
+     */
+    boolean findClosestHit(int from, int to, double ox, double oy, double oz,
+                           double dx, double dy, double dz, Hit hit) {
+        return VECTORIZED
+                ? TriangleBatchVector.findClosestHit(this, from, to, ox, oy, oz, dx, dy, dz, hit)
+                : findClosestHitScalar(from, to, ox, oy, oz, dx, dy, dz, hit);
+    }
+
+    /**
+     * The scalar loop of {@link #findClosestHit}, when there is no Vector API
+     * @param from index of the first geometry
+     * @param to   index after the last geometry
+     * @param ox   x of the ray's head
+     * @param oy   y of the ray's head
+     * @param oz   z of the ray's head
+     * @param dx   x of the ray's direction
+     * @param dy   y of the ray's direction
+     * @param dz   z of the ray's direction
+     * @param hit  the closest intersection so far, updated if a closer one is found
+     * @return true if a closer intersection was found
+     */
+    boolean findClosestHitScalar(int from, int to, double ox, double oy, double oz,
+                                 double dx, double dy, double dz, Hit hit) {
+        boolean found = false;
+        for (int i = from; i < to; ++i) {
+            if (triangles[i] == null) continue;
+            // p = d x e2, det = e1 . p - a determinant that is zero for the triangle's
+            // size means the ray is parallel to the triangle
+            double px = dy * e2z[i] - dz * e2y[i];
+            double py = dz * e2x[i] - dx * e2z[i];
+            double pz = dx * e2y[i] - dy * e2x[i];
+            double det = e1x[i] * px + e1y[i] * py + e1z[i] * pz;
+            if (Math.abs(det) <= minDet[i]) continue;
+            double invDet = 1 / det;
+
+            // barycentric coordinates of the intersection point
+            double sx = ox - v0x[i], sy = oy - v0y[i], sz = oz - v0z[i];
+            double u = (sx * px + sy * py + sz * pz) * invDet;
+            if (u <= 0 || u >= 1) continue;
+            double qx = sy * e1z[i] - sz * e1y[i];
+            double qy = sz * e1x[i] - sx * e1z[i];
+            double qz = sx * e1y[i] - sy * e1x[i];
+            double v = (dx * qx + dy * qy + dz * qz) * invDet;
+            if (v <= 0 || u + v >= 1) continue;
+
+            double t = alignZero((e2x[i] * qx + e2y[i] * qy + e2z[i] * qz) * invDet);
+            if (t > 0)
+                found |= hit.update(t, triangles[i], u, v);
+        }
+        return found;
+    }
+}
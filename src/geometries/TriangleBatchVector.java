@@ -0,0 +1,92 @@
+package geometries;
+
+import geometries.Intersectable.Hit;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Möller–Trumbore loop of {@link TriangleBatch} on the lanes of the Java
+ * Vector API - a ray is tested against as many triangles at once as the
+ * processor's vectors hold (4 on AVX2, 8 on AVX-512).<br/>
+ * The class needs the jdk.incubator.vector module, so it is used only when the
+ * module is in the boot layer (java --add-modules jdk.incubator.vector), and
+ * {@link TriangleBatch} keeps its scalar loop otherwise. The calculation is the
+ * same as the scalar loop's, operation by operation, so the hits are the same
+ * @author Michal and Tamar
+ */
+final class TriangleBatchVector {
+    /** the widest vectors of the processor */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    /** the smallest number that isn't zero by {@link primitives.Util#isZero(double)} */
+    private static final double MIN_NONZERO = 0x1p-40;
+
+    /** Don't let anyone instantiate this class */
+    private TriangleBatchVector() {}
+
+    /**
+     * Looks for the closest intersection of a ray with the triangles in a range of
+     * geometries, which is closer than the recorded hit - see
+     * {@link TriangleBatch#findClosestHit}. The places of other geometries hold
+     * zero edges, so their determinant is zero and they are never hit
+     * @param batch the triangles
+     * @param from  index of the first geometry
+     * @param to    index after the last geometry
+     * @param ox    x of the ray's head
+     * @param oy    y of the ray's head
+     * @param oz    z of the ray's head
+     * @param dx    x of the ray's direction
+     * @param dy    y of the ray's direction
+     * @param dz    z of the ray's direction
+     * @param hit   the closest intersection so far, updated if a closer one is found
+     * @return true if a closer intersection was found
+     */
+    static boolean findClosestHit(TriangleBatch batch, int from, int to, double ox, double oy, double oz,
+                                  double dx, double dy, double dz, Hit hit) {
+        boolean found = false;
+        for (int i = from; i < to; i += SPECIES.length()) {
+            VectorMask<Double> inRange = SPECIES.indexInRange(i - from, to - from);
+            DoubleVector e1x = DoubleVector.fromArray(SPECIES, batch.e1x, i, inRange);
+            DoubleVector e1y = DoubleVector.fromArray(SPECIES, batch.e1y, i, inRange);
+            DoubleVector e1z = DoubleVector.fromArray(SPECIES, batch.e1z, i, inRange);
+            DoubleVector e2x = DoubleVector.fromArray(SPECIES, batch.e2x, i, inRange);
+            DoubleVector e2y = DoubleVector.fromArray(SPECIES, batch.e2y, i, inRange);
+            DoubleVector e2z = DoubleVector.fromArray(SPECIES, batch.e2z, i, inRange);
+
+            // p = d x e2, det = e1 . p - a determinant that is zero for the triangle's
+            // size means the ray is parallel to the triangle
+            DoubleVector px = e2z.mul(dy).sub(e2y.mul(dz));
+            DoubleVector py = e2x.mul(dz).sub(e2z.mul(dx));
+            DoubleVector pz = e2y.mul(dx).sub(e2x.mul(dy));
+            DoubleVector det = e1x.mul(px).add(e1y.mul(py)).add(e1z.mul(pz));
+            DoubleVector minDet = DoubleVector.fromArray(SPECIES, batch.minDet, i, inRange);
+            VectorMask<Double> valid = inRange.and(det.abs().compare(VectorOperators.GT, minDet));
+            if (!valid.anyTrue()) continue;
+            DoubleVector invDet = DoubleVector.broadcast(SPECIES, 1).div(det);
+
+            // barycentric coordinates of the intersection point
+            DoubleVector sx = DoubleVector.broadcast(SPECIES, ox).sub(DoubleVector.fromArray(SPECIES, batch.v0x, i, inRange));
+            DoubleVector sy = DoubleVector.broadcast(SPECIES, oy).sub(DoubleVector.fromArray(SPECIES, batch.v0y, i, inRange));
+            DoubleVector sz = DoubleVector.broadcast(SPECIES, oz).sub(DoubleVector.fromArray(SPECIES, batch.v0z, i, inRange));
+            DoubleVector u = sx.mul(px).add(sy.mul(py)).add(sz.mul(pz)).mul(invDet);
+            valid = valid.and(u.compare(VectorOperators.GT, 0)).and(u.compare(VectorOperators.LT, 1));
+            if (!valid.anyTrue()) continue;
+            DoubleVector qx = sy.mul(e1z).sub(sz.mul(e1y));
+            DoubleVector qy = sz.mul(e1x).sub(sx.mul(e1z));
+            DoubleVector qz = sx.mul(e1y).sub(sy.mul(e1x));
+            DoubleVector v = qx.mul(dx).add(qy.mul(dy)).add(qz.mul(dz)).mul(invDet);
+            valid = valid.and(v.compare(VectorOperators.GT, 0)).and(u.add(v).compare(VectorOperators.LT, 1));
+            if (!valid.anyTrue()) continue;
+
+            // the few triangles that are hit are recorded in order, as by the scalar loop
+            DoubleVector t = e2x.mul(qx).add(e2y.mul(qy)).add(e2z.mul(qz)).mul(invDet);
+            valid = valid.and(t.compare(VectorOperators.GE, MIN_NONZERO));
+            for (long lanes = valid.toLong(); lanes != 0; lanes &= lanes - 1) {
+                int lane = Long.numberOfTrailingZeros(lanes);
+                found |= hit.update(t.lane(lane), batch.triangles[i + lane], u.lane(lane), v.lane(lane));
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,433 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Indexed triangle mesh - many triangles that share their vertices, material and
+ * emission.<br/>
+ * The vertices are kept in one array of coordinates and the faces in one array
+ * of vertex indices, so a face costs 3 ints instead of a {@link Triangle} object
+ * with its own points, plane and material. The faces are arranged in a bounding
+ * volume hierarchy of their own, stored in the flat arrays of {@link BVH}.<br/>
+ * An intersection's geometry is a light-weight face of the mesh, created only for
+ * the intersections that are returned, which knows the face's normal
+ * @author Michal and Tamar
+ */
+public class TriangleMesh extends Geometry {
+    /** coordinates of the vertices - 3 values (x,y,z) per vertex */
+    private final double[] vertices;
+    /** vertex indices of the faces - 3 values per face, in the hierarchy's leaf order */
+    private final int[] faces;
+    /** boxes of the hierarchy's nodes, as in {@link BVH} */
+    private final double[] nodeBounds;
+    /** children and faces of the hierarchy's nodes, as in {@link BVH} */
+    private final int[] nodeData;
+    /** box of the whole mesh */
+    private final BoundingBox box;
+    /** traversal stack of each thread */
+    private final ThreadLocal<BVH.Stack> stacks;
+
+    /**
+     * ctor
+     * @param vertices coordinates of the vertices - 3 values (x,y,z) per vertex. The
+     *                 array isn't copied, and shouldn't be changed afterwards
+     * @param faces    vertex indices of the faces - 3 values per face, ordered
+     *                 counterclockwise around the face's normal
+     * @throws IllegalArgumentException if there are no faces, if the arrays' lengths
+     *                                  aren't multiples of 3 or if a face refers to a
+     *                                  missing vertex
+     */
+    public TriangleMesh(double[] vertices, int[] faces) {
+        if (vertices.length % 3 != 0 || faces.length % 3 != 0)
+            throw new IllegalArgumentException("The vertices and the faces must have 3 values each");
+        if (faces.length == 0)
+            throw new IllegalArgumentException("A mesh can't be without faces");
+        int vertexCount = vertices.length / 3;
+        for (int index : faces)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("A face refers to a missing vertex");
+        this.vertices = vertices;
+
+        int faceCount = faces.length / 3;
+        double[] boxes = new double[faceCount * 6];
+        for (int f = 0; f < faceCount; ++f)
+            for (int axis = 0; axis < 3; ++axis) {
+                double a = vertices[faces[f * 3] * 3 + axis];
+                double b = vertices[faces[f * 3 + 1] * 3 + axis];
+                double c = vertices[faces[f * 3 + 2] * 3 + axis];
+                boxes[f * 6 + axis] = Math.min(a, Math.min(b, c));
+                boxes[f * 6 + axis + 3] = Math.max(a, Math.max(b, c));
+            }
+        BVHBuilder.Tree tree = new BVHBuilder(BVHBuilder.Mode.QUALITY).build(boxes);
+        nodeBounds = tree.nodeBounds();
+        nodeData = tree.nodeData();
+        // the faces are stored in leaf order, so each leaf is a range of faces
+        this.faces = new int[faces.length];
+        for (int f = 0; f < faceCount; ++f)
+            System.arraycopy(faces, tree.order()[f] * 3, this.faces, f * 3, 3);
+        box = new BoundingBox(nodeBounds[0], nodeBounds[1], nodeBounds[2],
+                nodeBounds[3], nodeBounds[4], nodeBounds[5]);
+        int depth = tree.depth();
+        stacks = ThreadLocal.withInitial(() -> new BVH.Stack(depth));
+    }
+
+    /**
+     * getter for the amount of faces
+     * @return the amount of faces
+     */
+    public int getFaceCount() {
+        return faces.length / 3;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    /**
+     * The intersections give the face as their geometry, which knows its normal,
+     * so the mesh looks for the face only when it is asked for the normal directly:
+     * it is the face whose plane is the nearest to the point, among the faces that
+     * the point is projected into
+     * @param point on the shape
+     * @return the normal of the point's face
+     * @throws IllegalArgumentException if the point isn't on any face of the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        int face = -1;
+        double nearest = Double.POSITIVE_INFINITY;
+        int[] stack = stacks.get().nodes;
+        int top = 0;
+        int node = 0;
+        while (true) {
+            if (contains(node, x, y, z)) {
+                int first = nodeData[node * 2];
+                int count = nodeData[node * 2 + 1];
+                if (count == 0) {
+                    stack[top++] = first;
+                    ++node;
+                    continue;
+                }
+                for (int f = first; f < first + count; ++f) {
+                    double distance = planeDistance(f, x, y, z);
+                    if (distance < nearest) {
+                        nearest = distance;
+                        face = f;
+                    }
+                }
+            }
+            if (top == 0)
+                break;
+            node = stack[--top];
+        }
+        if (face < 0)
+            throw new IllegalArgumentException("The point isn't on the mesh");
+        return normal(face);
+    }
+
+    /**
+     * Checks whether a point is in the box of a node of the hierarchy - on its
+     * surface as well
+     * @param node the node
+     * @param x    x of the point
+     * @param y    y of the point
+     * @param z    z of the point
+     * @return true if the point is in the box
+     */
+    private boolean contains(int node, double x, double y, double z) {
+        int offset = node * 6;
+        return alignZero(x - nodeBounds[offset]) >= 0 && alignZero(nodeBounds[offset + 3] - x) >= 0
+                && alignZero(y - nodeBounds[offset + 1]) >= 0 && alignZero(nodeBounds[offset + 4] - y) >= 0
+                && alignZero(z - nodeBounds[offset + 2]) >= 0 && alignZero(nodeBounds[offset + 5] - z) >= 0;
+    }
+
+    /**
+     * Distance of a point from the plane of a face, if the point is projected into
+     * the face (or onto its edges)
+     * @param face the face index
+     * @param x    x of the point
+     * @param y    y of the point
+     * @param z    z of the point
+     * @return the distance, infinity if the point is projected outside the face
+     */
+    private double planeDistance(int face, double x, double y, double z) {
+        int a = faces[face * 3] * 3, b = faces[face * 3 + 1] * 3, c = faces[face * 3 + 2] * 3;
+        double v0x = vertices[a], v0y = vertices[a + 1], v0z = vertices[a + 2];
+        double e1x = vertices[b] - v0x, e1y = vertices[b + 1] - v0y, e1z = vertices[b + 2] - v0z;
+        double e2x = vertices[c] - v0x, e2y = vertices[c + 1] - v0y, e2z = vertices[c + 2] - v0z;
+        double wx = x - v0x, wy = y - v0y, wz = z - v0z;
+
+        // barycentric coordinates of the point's projection on the face's plane
+        double d11 = e1x * e1x + e1y * e1y + e1z * e1z;
+        double d12 = e1x * e2x + e1y * e2y + e1z * e2z;
+        double d22 = e2x * e2x + e2y * e2y + e2z * e2z;
+        double w1 = wx * e1x + wy * e1y + wz * e1z;
+        double w2 = wx * e2x + wy * e2y + wz * e2z;
+        double denominator = d11 * d22 - d12 * d12;
+        if (isZero(denominator)) return Double.POSITIVE_INFINITY;
+        double u = (d22 * w1 - d12 * w2) / denominator;
+        double v = (d11 * w2 - d12 * w1) / denominator;
+        if (alignZero(u) < 0 || alignZero(v) < 0 || alignZero(1 - u - v) < 0) return Double.POSITIVE_INFINITY;
+
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        return Math.abs(wx * nx + wy * ny + wz * nz) / Math.sqrt(nx * nx + ny * ny + nz * nz);
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+
+        List<GeoPoint> result = null;
+        int[] stack = stacks.get().nodes;
+        int top = 0;
+        int node = 0;
+        while (true) {
+            if (BVH.entryDistance(nodeBounds, node, ox, oy, oz, invX, invY, invZ) != BVH.MISS) {
+                int first = nodeData[node * 2];
+                int count = nodeData[node * 2 + 1];
+                if (count == 0) {
+                    stack[top++] = first;
+                    ++node;
+                    continue;
+                }
+                for (int f = first; f < first + count; ++f) {
+                    double t = intersect(f, ox, oy, oz, dx, dy, dz, null);
+                    if (!Double.isNaN(t)) {
+                        if (result == null)
+                            result = new LinkedList<>();
+                        result.add(new GeoPoint(new Face(this, f), ray.getPoint(t), t));
+                    }
+                }
+            }
+            if (top == 0)
+                return result;
+            node = stack[--top];
+        }
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, Hit hit) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+
+        int closest = -1; // the face of the closest intersection, created once the search is done
+        BVH.Stack stack = stacks.get();
+        int top = 0;
+        int node = 0; // the root's box was already checked
+        while (true) {
+            int first = nodeData[node * 2];
+            int count = nodeData[node * 2 + 1];
+            if (count == 0) {
+                // visit the nearer child first, like in the BVH
+                int near = node + 1, far = first;
+                double tNear = BVH.entryDistance(nodeBounds, near, ox, oy, oz, invX, invY, invZ);
+                double tFar = BVH.entryDistance(nodeBounds, far, ox, oy, oz, invX, invY, invZ);
+                if (tFar < tNear) {
+                    near = first;
+                    far = node + 1;
+                    double t = tNear;
+                    tNear = tFar;
+                    tFar = t;
+                }
+                if (tNear != BVH.MISS && tNear <= hit.t) {
+                    if (tFar != BVH.MISS && tFar <= hit.t) {
+                        stack.nodes[top] = far;
+                        stack.distances[top++] = tFar;
+                    }
+                    node = near;
+                    continue;
+                }
+            } else {
+                for (int f = first; f < first + count; ++f)
+                    if (!Double.isNaN(intersect(f, ox, oy, oz, dx, dy, dz, hit)))
+                        closest = f;
+            }
+            do {
+                if (top == 0) {
+                    if (closest < 0) return false;
+                    hit.geometry = new Face(this, closest);
+                    return true;
+                }
+                --top;
+            } while (stack.distances[top] > hit.t);
+            node = stack.nodes[top];
+        }
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+
+        int[] stack = stacks.get().nodes;
+        int top = 0;
+        int node = 0;
+        while (true) {
+            double entry = BVH.entryDistance(nodeBounds, node, ox, oy, oz, invX, invY, invZ);
+            if (entry != BVH.MISS && entry <= maxDistance) {
+                int first = nodeData[node * 2];
+                int count = nodeData[node * 2 + 1];
+                if (count == 0) {
+                    stack[top++] = first;
+                    ++node;
+                    continue;
+                }
+                for (int f = first; f < first + count; ++f) {
+                    double t = intersect(f, ox, oy, oz, dx, dy, dz, null);
+                    if (alignZero(t - maxDistance) <= 0) {
+                        // all the faces share the material
+                        ktr = passLight(ktr, minK);
+                        if (ktr == Double3.ZERO) return ktr;
+                    }
+                }
+            }
+            if (top == 0)
+                return ktr;
+            node = stack[--top];
+        }
+    }
+
+    /**
+     * Möller–Trumbore test of a ray against a face - the same test as
+     * {@link TriangleBatch}, so intersections on the edges are ignored
+     * @param face the face index
+     * @param ox   x of the ray's head
+     * @param oy   y of the ray's head
+     * @param oz   z of the ray's head
+     * @param dx   x of the ray's direction
+     * @param dy   y of the ray's direction
+     * @param dz   z of the ray's direction
+     * @param hit  the closest intersection so far, updated if the face's intersection
+     *             is closer, may be null. The mesh itself is recorded as the hit's
+     *             geometry, until the closest face is known
+     * @return distance of the intersection from the ray's head, NaN if there is none
+     *         (or if it isn't closer than the hit, when there is one)
+     */
+    private double intersect(int face, double ox, double oy, double oz, double dx, double dy, double dz,
+                             Hit hit) {
+        int a = faces[face * 3] * 3, b = faces[face * 3 + 1] * 3, c = faces[face * 3 + 2] * 3;
+        double v0x = vertices[a], v0y = vertices[a + 1], v0z = vertices[a + 2];
+        double e1x = vertices[b] - v0x, e1y = vertices[b + 1] - v0y, e1z = vertices[b + 2] - v0z;
+        double e2x = vertices[c] - v0x, e2y = vertices[c + 1] - v0y, e2z = vertices[c + 2] - v0z;
+
+        double px = dy * e2z - dz * e2y;
+        double py = dz * e2x - dx * e2z;
+        double pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        // the parallel test is relative to the face's size, as in Triangle - in squares,
+        // so that the faces don't keep another number
+        if (det * det <= Triangle.PARALLEL * Triangle.PARALLEL
+                * (e1x * e1x + e1y * e1y + e1z * e1z) * (e2x * e2x + e2y * e2y + e2z * e2z))
+            return Double.NaN;
+        double invDet = 1 / det;
+
+        double sx = ox - v0x, sy = oy - v0y, sz = oz - v0z;
+        double u = (sx * px + sy * py + sz * pz) * invDet;
+        if (u <= 0 || u >= 1) return Double.NaN;
+        double qx = sy * e1z - sz * e1y;
+        double qy = sz * e1x - sx * e1z;
+        double qz = sx * e1y - sy * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * invDet;
+        if (v <= 0 || u + v >= 1) return Double.NaN;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * invDet);
+        if (t <= 0) return Double.NaN;
+        if (hit == null) return t;
+        return hit.update(t, this, u, v) ? t : Double.NaN;
+    }
+
+    /**
+     * Calculates the normal of a face
+     * @param face the face index
+     * @return the normal, according to the order of the face's vertices
+     */
+    private Vector normal(int face) {
+        int a = faces[face * 3] * 3, b = faces[face * 3 + 1] * 3, c = faces[face * 3 + 2] * 3;
+        Vector e1 = new Vector(vertices[b] - vertices[a], vertices[b + 1] - vertices[a + 1],
+                vertices[b + 2] - vertices[a + 2]);
+        Vector e2 = new Vector(vertices[c] - vertices[a], vertices[c + 1] - vertices[a + 1],
+                vertices[c + 2] - vertices[a + 2]);
+        return e1.crossProduct(e2).normalize();
+    }
+
+    /**
+     * A face of a mesh as the geometry of an intersection - it shares the mesh's
+     * material and emission and gives the face's normal
+     */
+    private static final class Face extends Geometry {
+        /** the mesh */
+        private final TriangleMesh mesh;
+        /** index of the face in the mesh */
+        private final int index;
+
+        /**
+         * ctor
+         * @param mesh  the mesh
+         * @param index index of the face in the mesh
+         */
+        Face(TriangleMesh mesh, int index) {
+            super(mesh);
+            this.mesh = mesh;
+            this.index = index;
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            return mesh.normal(index);
+        }
+
+        @Override
+        public BoundingBox getBoundingBox() {
+            int a = mesh.faces[index * 3] * 3, b = mesh.faces[index * 3 + 1] * 3, c = mesh.faces[index * 3 + 2] * 3;
+            double[] v = mesh.vertices;
+            return new BoundingBox(
+                    Math.min(v[a], Math.min(v[b], v[c])),
+                    Math.min(v[a + 1], Math.min(v[b + 1], v[c + 1])),
+                    Math.min(v[a + 2], Math.min(v[b + 2], v[c + 2])),
+                    Math.max(v[a], Math.max(v[b], v[c])),
+                    Math.max(v[a + 1], Math.max(v[b + 1], v[c + 1])),
+                    Math.max(v[a + 2], Math.max(v[b + 2], v[c + 2])));
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+            Point head = ray.getHead();
+            Vector dir = ray.getDirection();
+            double t = mesh.intersect(index, head.getX(), head.getY(), head.getZ(),
+                    dir.getX(), dir.getY(), dir.getZ(), null);
+            return Double.isNaN(t) ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            return obj instanceof Face other && other.mesh == mesh && other.index == index;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(mesh) * 31 + index;
+        }
+    }
+}
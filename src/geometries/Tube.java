@@ -33,6 +33,11 @@ public class   Tube extends RadialGeometry{
         return point.subtract(this.axis.getPoint(t)).normalize();
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return null; // an infinite tube is unbounded
+    }
+
     @Override
     public List<Point> findIntersections(Ray ray) {
         return null;
@@ -44,31 +49,22 @@ public class   Tube extends RadialGeometry{
         Vector v = axis.getDirection();
         double dirV = dir.dotProduct(v);
 
-        if (ray.getHead().equals(axis.getHead())) { // In case the ray starts on the p0.
-            if (isZero(dirV))
-                return List.of(new Intersectable.GeoPoint(this, ray.getPoint(radius)));
-
-            if (dir.equals(v.scale(dir.dotProduct(v))))
-                return null;
-
-
-            return List.of(new Intersectable.GeoPoint(this, ray.getPoint(
-                    Math.sqrt(radius * radius / dir.subtract(v.scale(dir.dotProduct(v))).lengthSquared()))));
-
-
-        }
-        Vector deltaP = ray.getHead().subtract(axis.getHead());
-        double dpV = deltaP.dotProduct(v);
+        // the vector from the axis' head to the ray's head in plain numbers - a ray
+        // that starts on the axis' head gets b = 0 and needs no special case
+        Point head = ray.getHead();
+        Point axisHead = axis.getHead();
+        double dx = head.getX() - axisHead.getX(), dy = head.getY() - axisHead.getY(), dz = head.getZ() - axisHead.getZ();
+        double dpV = dx * v.getX() + dy * v.getY() + dz * v.getZ();
 
         double a = 1 - dirV * dirV;
-        double b = 2 * (dir.dotProduct(deltaP) - dirV * dpV);
-        double c = deltaP.lengthSquared() - dpV * dpV - radius * radius;
+        double b = 2 * (dx * dir.getX() + dy * dir.getY() + dz * dir.getZ() - dirV * dpV);
+        double c = dx * dx + dy * dy + dz * dz - dpV * dpV - radius * radius;
 
         if (isZero(a)) {
             if (isZero(b)) { // If a constant equation.
                 return null;
             }
-            return List.of(new Intersectable.GeoPoint(this,ray.getPoint(-c / b))); // if it's linear, there's a solution.
+            return List.of(new Intersectable.GeoPoint(this,ray.getPoint(-c / b), -c / b)); // if it's linear, there's a solution.
         }
 
         double discriminant = alignZero(b * b - 4 * a * c);
@@ -84,18 +80,18 @@ public class   Tube extends RadialGeometry{
 
         if (t1 > 0 && t2 > 0) {
             List<GeoPoint> points = new LinkedList<>();
-            points.add(new Intersectable.GeoPoint(this,ray.getPoint(t1)));
-            points.add(new Intersectable.GeoPoint(this,ray.getPoint(t2)));
+            points.add(new Intersectable.GeoPoint(this,ray.getPoint(t1), t1));
+            points.add(new Intersectable.GeoPoint(this,ray.getPoint(t2), t2));
             return points;
         }
         else if (t1 > 0) {
             List<GeoPoint> points = new LinkedList<>();
-            points.add(new Intersectable.GeoPoint(this,ray.getPoint(t1)));
+            points.add(new Intersectable.GeoPoint(this,ray.getPoint(t1), t1));
             return  points;
         }
         else if (t2 > 0) {
             List<GeoPoint> points = new LinkedList<>();
-            points.add(new Intersectable.GeoPoint(this,ray.getPoint(t2)));
+            points.add(new Intersectable.GeoPoint(this,ray.getPoint(t2), t2));
             return points;
         }
         return null;
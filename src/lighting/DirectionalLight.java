@@ -1,6 +1,7 @@
 package lighting;
 
 import primitives.Color;
+import primitives.MutableDouble3;
 import primitives.Point;
 import primitives.Vector;
 
@@ -39,6 +40,16 @@ public class DirectionalLight extends Light implements LightSource{
         return this.direction.normalize();
     }
 
+    @Override
+    public void getIntensity(Point p, MutableDouble3 intensity) {
+        intensity.set(this.intensity);
+    }
+
+    @Override
+    public void getL(Point p, MutableDouble3 l) {
+        l.set(this.direction).normalize();
+    }
+
     @Override
     public double getDistance(Point point) {
         return Double.POSITIVE_INFINITY;
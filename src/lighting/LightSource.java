@@ -22,4 +22,28 @@ public interface LightSource {
     Vector getL(Point point);
     double getDistance(Point point);
 
+    /**
+     * Writes the color of the light source at a point (the same as
+     * {@link #getIntensity(Point)}) into a scratch triad, for the shading loop.
+     * By default the color is copied - a light source should override it without
+     * creating objects
+     * @param point     point to check the color
+     * @param intensity the triad for the color
+     */
+    default void getIntensity(Point point, MutableDouble3 intensity) {
+        intensity.set(getIntensity(point));
+    }
+
+    /**
+     * Writes the direction of the light source at a point (the same as
+     * {@link #getL(Point)}) into a scratch triad, for the shading loop.
+     * By default the direction is copied - a light source should override it
+     * without creating objects
+     * @param point point to check the direction
+     * @param l     the triad for the direction
+     */
+    default void getL(Point point, MutableDouble3 l) {
+        l.set(getL(point));
+    }
+
 }
\ No newline at end of file
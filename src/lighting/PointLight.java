@@ -2,6 +2,7 @@ package lighting;
 
 import primitives.Color;
 import primitives.Double3;
+import primitives.MutableDouble3;
 import primitives.Point;
 import primitives.Vector;
 
@@ -51,6 +52,13 @@ public class PointLight extends Light implements LightSource{
         return getIntensity().scale(1/factor);
     }
 
+    @Override
+    public void getIntensity(Point point, MutableDouble3 intensity) {
+        double distance = this.position.distance(point);
+        double factor = this.kC + this.kL * distance + this.kQ * (distance * distance);
+        intensity.set(getIntensity()).scale(1/factor);
+    }
+
     /**
      * Return normalize direction vector from the light source to the object
      *
@@ -62,6 +70,11 @@ public class PointLight extends Light implements LightSource{
         return point.subtract(this.position).normalize();
     }
 
+    @Override
+    public void getL(Point point, MutableDouble3 l) {
+        l.setDifference(point, this.position).normalize();
+    }
+
     /**
      * setkC function
      *
@@ -1,6 +1,7 @@
 package lighting;
 
 import primitives.Color;
+import primitives.MutableDouble3;
 import primitives.Point;
 import primitives.Util;
 import primitives.Vector;
@@ -57,9 +58,16 @@ public class SpotLight extends PointLight{
     }
     @Override
     public Color getIntensity(Point p) {
-        double cos = alignZero(dir.dotProduct(getL(p)));
-        return NarrowBeam != 1
-                ? super.getIntensity(p).scale(Math.pow(Math.max(0, dir.dotProduct(getL(p))), NarrowBeam))
-                : super.getIntensity(p).scale(Math.max(0, dir.dotProduct(getL(p))));
+        double cos = Math.max(0, dir.dotProduct(getL(p)));
+        return super.getIntensity(p).scale(NarrowBeam != 1 ? Math.pow(cos, NarrowBeam) : cos);
+    }
+
+    @Override
+    public void getIntensity(Point p, MutableDouble3 intensity) {
+        // the light vector is in the same triad until the intensity replaces it
+        getL(p, intensity);
+        double cos = Math.max(0, intensity.dotProduct(dir));
+        super.getIntensity(p, intensity);
+        intensity.scale(NarrowBeam != 1 ? Math.pow(cos, NarrowBeam) : cos);
     }
 }
@@ -12,7 +12,7 @@ public class Color {
     * The internal fields maintain RGB components as double numbers from 0 to
     * whatever...
     */
-   private final Double3     rgb;
+   final Double3             rgb;
 
    /** Black color = (0,0,0) */
    public static final Color BLACK = new Color();
@@ -56,11 +56,26 @@ public class Color {
     * object During the conversion any component bigger than 255 is set to 255
     * @return java.awt.Color object based on this Color RGB components
     */
-   public java.awt.Color getColor() {
-      int ir = (int) rgb.d1;
-      int ig = (int) rgb.d2;
-      int ib = (int) rgb.d3;
-      return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
+   public java.awt.Color getColor() { return new java.awt.Color(getRGB()); }
+
+   /**
+    * Color getter - returns the color packed into an int as 0xRRGGBB, the way
+    * java.awt.Color's RGB value is packed but without the alpha, without
+    * creating a java.awt.Color. Any component bigger than 255 is set to 255
+    * @return the packed RGB components
+    */
+   public int getRGB() { return clamp(rgb.d1) << 16 | clamp(rgb.d2) << 8 | clamp(rgb.d3); }
+
+   /**
+    * Converts a component into the range of a byte, by arithmetic without
+    * branches: the excess over 255 is masked by its sign and subtracted
+    * @param  component the component (non-negative)
+    * @return           the component's integer part, or 255 if it is bigger
+    */
+   private static int clamp(double component) {
+      int value = (int) component;
+      int excess = value - 255;
+      return value - (excess & ~(excess >> 31));
    }
 
    /**
@@ -109,6 +109,17 @@ public class Double3 {
 
    public boolean lowerThan(double k) { return d1 < k && d2 < k && d3 < k; }
 
+   /**
+    * Checks whether all the numbers of the product with another triad are lower
+    * than a test number, without creating the product
+    * @param  rhs right handle side operand for product
+    * @param  k   the test number
+    * @return     true if all the numbers of the product are less than k, false otherwise
+    */
+   public boolean productLowerThan(Double3 rhs, double k) {
+      return d1 * rhs.d1 < k && d2 * rhs.d2 < k && d3 * rhs.d3 < k;
+   }
+
    /**
     * Checks whether all the numbers are lower than three numbers in another triad
     * @param  other other triad
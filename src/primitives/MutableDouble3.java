@@ -0,0 +1,146 @@
+package primitives;
+
+/**
+ * Mutable triad of numbers - a vector, a point or a color in the inner loops of
+ * the renderer, where creating an immutable {@link Double3}, {@link Vector} or
+ * {@link Color} for every intermediate value would cost an object each time.<br/>
+ * The operations change the triad itself and return it, and they calculate exactly
+ * as the matching immutable operations do, so the results are the same. A triad is
+ * a scratch value of one thread, and must not be shared
+ * @author Michal and Tamar
+ */
+public final class MutableDouble3 {
+    /** First number */
+    double d1;
+    /** Second number */
+    double d2;
+    /** Third number */
+    double d3;
+
+    /**
+     * Sets the numbers of the triad
+     * @param d1 first number value
+     * @param d2 second number value
+     * @param d3 third number value
+     * @return this
+     */
+    public MutableDouble3 set(double d1, double d2, double d3) {
+        this.d1 = d1;
+        this.d2 = d2;
+        this.d3 = d3;
+        return this;
+    }
+
+    /**
+     * Sets the numbers of the triad to those of an immutable triad
+     * @param other the triad
+     * @return this
+     */
+    public MutableDouble3 set(Double3 other) {
+        return set(other.d1, other.d2, other.d3);
+    }
+
+    /**
+     * Sets the numbers of the triad to the coordinates of a point (or a vector)
+     * @param point the point
+     * @return this
+     */
+    public MutableDouble3 set(Point point) {
+        return set(point.xyz);
+    }
+
+    /**
+     * Sets the numbers of the triad to the components of a color
+     * @param color the color
+     * @return this
+     */
+    public MutableDouble3 set(Color color) {
+        return set(color.rgb);
+    }
+
+    /**
+     * Sets the triad to the vector between two points, as {@link Point#subtract(Point)}
+     * @param to   the point the vector leads to
+     * @param from the point the vector starts at
+     * @return this
+     */
+    public MutableDouble3 setDifference(Point to, Point from) {
+        return set(to.xyz.d1 - from.xyz.d1, to.xyz.d2 - from.xyz.d2, to.xyz.d3 - from.xyz.d3);
+    }
+
+    /**
+     * Scales the triad by a number
+     * @param scale the number
+     * @return this
+     */
+    public MutableDouble3 scale(double scale) {
+        return set(d1 * scale, d2 * scale, d3 * scale);
+    }
+
+    /**
+     * Normalizes the triad as a vector, as {@link Vector#normalize()}
+     * @return this
+     */
+    public MutableDouble3 normalize() {
+        double length = Math.sqrt(d1 * d1 + d2 * d2 + d3 * d3);
+        return set(d1 / length, d2 / length, d3 / length);
+    }
+
+    /**
+     * Adds an immutable triad scaled by a number
+     * @param other the triad
+     * @param scale the number
+     * @return this
+     */
+    public MutableDouble3 addScaled(Double3 other, double scale) {
+        return set(d1 + other.d1 * scale, d2 + other.d2 * scale, d3 + other.d3 * scale);
+    }
+
+    /**
+     * Adds the product of three triads per number, as a color plus a color scaled
+     * by two triads, {@code color.add(a.scale(k1).scale(k2))}
+     * @param a  first triad
+     * @param k1 second triad
+     * @param k2 third triad
+     * @return this
+     */
+    public MutableDouble3 addProduct(MutableDouble3 a, Double3 k1, MutableDouble3 k2) {
+        return set(d1 + a.d1 * k1.d1 * k2.d1, d2 + a.d2 * k1.d2 * k2.d2, d3 + a.d3 * k1.d3 * k2.d3);
+    }
+
+    /**
+     * Dot product of the triad and a vector, as {@link Vector#dotProduct(Vector)}
+     * @param vector the vector
+     * @return the dot product
+     */
+    public double dotProduct(Vector vector) {
+        return vector.xyz.d1 * d1 + vector.xyz.d2 * d2 + vector.xyz.d3 * d3;
+    }
+
+    /**
+     * Creates an immutable vector of the triad
+     * @return the vector
+     */
+    public Vector toVector() {
+        return new Vector(d1, d2, d3);
+    }
+
+    /**
+     * Creates an immutable vector opposite to the triad, leaving the triad as it is
+     * @return the negated vector
+     */
+    public Vector toNegatedVector() {
+        return new Vector(-d1, -d2, -d3);
+    }
+
+    /**
+     * Creates an immutable color of the triad
+     * @return the color
+     */
+    public Color toColor() {
+        return new Color(d1, d2, d3);
+    }
+
+    @Override
+    public String toString() { return "(" + d1 + "," + d2 + "," + d3 + ")"; }
+}
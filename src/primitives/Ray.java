@@ -29,7 +29,7 @@ public class Ray {
      */
     public Ray(Point p0, Vector dir, Vector n) {
         double delta = dir.dotProduct(n) >= 0 ? DELTA : -DELTA;
-        this.head = p0.add(n.scale(delta));
+        this.head = new Point(p0.getX() + n.getX() * delta, p0.getY() + n.getY() * delta, p0.getZ() + n.getZ() * delta);
         this.direction = dir;
     }
 
@@ -89,7 +89,9 @@ public class Ray {
             return head;
         }
 
-        return head.add(direction.scale(t));
+        // the coordinates are calculated directly, without the scaled direction vector
+        return new Point(head.getX() + direction.getX() * t, head.getY() + direction.getY() * t,
+                head.getZ() + direction.getZ() * t);
     }
     public Point findClosestPoint(List<Point> points) {
         return points == null || points.isEmpty() ? null
@@ -97,7 +99,8 @@ public class Ray {
     }
 
     /**
-     * Return the closest GeoPoint from all intersection GeoPoints
+     * Return the closest GeoPoint from all intersection GeoPoints - by their ray
+     * parameter when the intersection kernel provided it
      *
      * @param geoPointList list of intersections
      * @return {@link GeoPoint}
@@ -131,7 +134,7 @@ public class Ray {
 
         if (!geoPointList.isEmpty()) {
             for (var geoPoint : geoPointList) {
-                geoPointDistance = this.head.distance(geoPoint.point);
+                geoPointDistance = geoPoint.distance(this);
                 if (geoPointDistance < minDistance) {
                     minDistance = geoPointDistance;
                     closestPoint = geoPoint;
@@ -159,36 +162,32 @@ public class Ray {
         Vector nX = direction.createNormal();
         Vector nY = direction.crossProduct(nX);
 
-        Point centerCircle = this.getPoint(distance);
-        Point randomPoint;
-        Vector v12;
+        // the beam's circle is centered at distance along the ray, so the vector from the
+        // head to a point on it is the (unit) direction scaled by distance plus its offset
+        double cx = direction.getX() * distance, cy = direction.getY() * distance, cz = direction.getZ() * distance;
 
         double rand_x, rand_y, delta_radius = radius / (numOfRays - 1);
         double nv = n.dotProduct(direction);
 
         for (int i = 1; i < numOfRays; i++) {
-            randomPoint = centerCircle;
             rand_x = random(-radius, radius);
             rand_y = randomSign() * Math.sqrt(radius * radius - rand_x * rand_x);
 
-            try {
-                randomPoint = randomPoint.add(nX.scale(rand_x));
-            } catch (Exception ex) {
-            }
-
-            try {
-                randomPoint = randomPoint.add(nY.scale(rand_y));
-            } catch (Exception ex) {
-            }
-
-            v12 = randomPoint.subtract(head).normalize();
+            // a zero offset along one of the grid vectors just leaves the coordinate as is
+            double x = cx + nX.getX() * rand_x + nY.getX() * rand_y;
+            double y = cy + nX.getY() * rand_x + nY.getY() * rand_y;
+            double z = cz + nX.getZ() * rand_x + nY.getZ() * rand_y;
+            double length = Math.sqrt(x * x + y * y + z * z);
+            radius -= delta_radius;
+            // a point of the circle at the ray's head gives no direction
+            if (isZero(length)) continue;
 
+            Vector v12 = new Vector(x / length, y / length, z / length);
             double nt = alignZero(n.dotProduct(v12));
 
             if (nv * nt > 0) {
                 rays.add(new Ray(head, v12));
             }
-            radius -= delta_radius;
         }
 
         return rays;
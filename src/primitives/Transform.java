@@ -0,0 +1,158 @@
+package primitives;
+
+import static primitives.Util.isZero;
+
+/**
+ * An affine transformation of space - a linear part (3x3 matrix) followed by a
+ * translation. Transformations are immutable, and are combined with
+ * {@link #then(Transform)}
+ * @author Michal and Tamar
+ */
+public class Transform {
+    /** the transformation that keeps every point in its place */
+    public static final Transform IDENTITY = new Transform(1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0);
+
+    /** the matrix rows - 4 values per row: 3 of the linear part and the translation */
+    private final double[] m;
+
+    /**
+     * ctor
+     * @param m00 row 0, column 0 of the linear part
+     * @param m01 row 0, column 1 of the linear part
+     * @param m02 row 0, column 2 of the linear part
+     * @param tx  translation along x
+     * @param m10 row 1, column 0 of the linear part
+     * @param m11 row 1, column 1 of the linear part
+     * @param m12 row 1, column 2 of the linear part
+     * @param ty  translation along y
+     * @param m20 row 2, column 0 of the linear part
+     * @param m21 row 2, column 1 of the linear part
+     * @param m22 row 2, column 2 of the linear part
+     * @param tz  translation along z
+     */
+    private Transform(double m00, double m01, double m02, double tx,
+                      double m10, double m11, double m12, double ty,
+                      double m20, double m21, double m22, double tz) {
+        m = new double[]{m00, m01, m02, tx, m10, m11, m12, ty, m20, m21, m22, tz};
+    }
+
+    /**
+     * Creates a translation
+     * @param vector the translation vector
+     * @return the transformation
+     */
+    public static Transform translation(Vector vector) {
+        return new Transform(1, 0, 0, vector.getX(), 0, 1, 0, vector.getY(), 0, 0, 1, vector.getZ());
+    }
+
+    /**
+     * Creates a scaling around the origin
+     * @param sx scale factor along x
+     * @param sy scale factor along y
+     * @param sz scale factor along z
+     * @return the transformation
+     * @throws IllegalArgumentException if one of the factors is zero
+     */
+    public static Transform scaling(double sx, double sy, double sz) {
+        if (isZero(sx) || isZero(sy) || isZero(sz))
+            throw new IllegalArgumentException("A scale factor can't be zero");
+        return new Transform(sx, 0, 0, 0, 0, sy, 0, 0, 0, 0, sz, 0);
+    }
+
+    /**
+     * Creates a rotation around an axis through the origin (Rodrigues' formula)
+     * @param axis    the rotation axis
+     * @param degrees the rotation angle, counterclockwise when looking against the axis
+     * @return the transformation
+     */
+    public static Transform rotation(Vector axis, double degrees) {
+        Vector n = axis.normalize();
+        double x = n.getX(), y = n.getY(), z = n.getZ();
+        double radians = Math.toRadians(degrees);
+        double c = Math.cos(radians), s = Math.sin(radians), k = 1 - c;
+        return new Transform(
+                c + x * x * k, x * y * k - z * s, x * z * k + y * s, 0,
+                y * x * k + z * s, c + y * y * k, y * z * k - x * s, 0,
+                z * x * k - y * s, z * y * k + x * s, c + z * z * k, 0);
+    }
+
+    /**
+     * Combines this transformation with another one
+     * @param next the transformation applied after this one
+     * @return the transformation that applies this one and then the next one
+     */
+    public Transform then(Transform next) {
+        double[] a = next.m, b = m;
+        double[] r = new double[12];
+        for (int row = 0; row < 3; ++row)
+            for (int col = 0; col < 4; ++col) {
+                double value = a[row * 4] * b[col] + a[row * 4 + 1] * b[4 + col] + a[row * 4 + 2] * b[8 + col];
+                r[row * 4 + col] = col == 3 ? value + a[row * 4 + 3] : value;
+            }
+        return new Transform(r[0], r[1], r[2], r[3], r[4], r[5], r[6], r[7], r[8], r[9], r[10], r[11]);
+    }
+
+    /**
+     * Calculates the inverse transformation
+     * @return the transformation that brings every transformed point back
+     * @throws IllegalArgumentException if the transformation can't be inverted
+     */
+    public Transform inverse() {
+        // the inverse of the linear part by cofactors, and the translation brought back through it
+        double c00 = m[5] * m[10] - m[6] * m[9], c01 = m[2] * m[9] - m[1] * m[10], c02 = m[1] * m[6] - m[2] * m[5];
+        double c10 = m[6] * m[8] - m[4] * m[10], c11 = m[0] * m[10] - m[2] * m[8], c12 = m[2] * m[4] - m[0] * m[6];
+        double c20 = m[4] * m[9] - m[5] * m[8], c21 = m[1] * m[8] - m[0] * m[9], c22 = m[0] * m[5] - m[1] * m[4];
+        double det = m[0] * c00 + m[1] * c10 + m[2] * c20;
+        if (isZero(det))
+            throw new IllegalArgumentException("The transformation can't be inverted");
+        double inv = 1 / det;
+        c00 *= inv; c01 *= inv; c02 *= inv;
+        c10 *= inv; c11 *= inv; c12 *= inv;
+        c20 *= inv; c21 *= inv; c22 *= inv;
+        return new Transform(
+                c00, c01, c02, -(c00 * m[3] + c01 * m[7] + c02 * m[11]),
+                c10, c11, c12, -(c10 * m[3] + c11 * m[7] + c12 * m[11]),
+                c20, c21, c22, -(c20 * m[3] + c21 * m[7] + c22 * m[11]));
+    }
+
+    /**
+     * Transforms a point
+     * @param point the point
+     * @return the transformed point
+     */
+    public Point transform(Point point) {
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        return new Point(
+                m[0] * x + m[1] * y + m[2] * z + m[3],
+                m[4] * x + m[5] * y + m[6] * z + m[7],
+                m[8] * x + m[9] * y + m[10] * z + m[11]);
+    }
+
+    /**
+     * Transforms a direction - only the linear part applies to it
+     * @param vector the direction
+     * @return the transformed direction (not normalized)
+     */
+    public Vector transformDirection(Vector vector) {
+        double x = vector.getX(), y = vector.getY(), z = vector.getZ();
+        return new Vector(
+                m[0] * x + m[1] * y + m[2] * z,
+                m[4] * x + m[5] * y + m[6] * z,
+                m[8] * x + m[9] * y + m[10] * z);
+    }
+
+    /**
+     * Transforms a normal of a surface by the transpose of this transformation's
+     * linear part - for this to keep the normal orthogonal to the transformed
+     * surface, this should be the inverse of the surface's transformation
+     * @param normal the normal
+     * @return the transformed normal, normalized
+     */
+    public Vector transformNormal(Vector normal) {
+        double x = normal.getX(), y = normal.getY(), z = normal.getZ();
+        return new Vector(
+                m[0] * x + m[4] * y + m[8] * z,
+                m[1] * x + m[5] * y + m[9] * z,
+                m[2] * x + m[6] * y + m[10] * z).normalize();
+    }
+}
@@ -49,7 +49,7 @@ public class Vector extends Point{
         if(v1.xyz==Double3.ZERO) {
             throw new IllegalArgumentException("vector is zero");
         }
-        return new Vector(super.add(v1).xyz);
+        return new Vector(xyz.d1 + v1.xyz.d1, xyz.d2 + v1.xyz.d2, xyz.d3 + v1.xyz.d3);
 
     }
 
@@ -58,7 +58,7 @@ public class Vector extends Point{
      * @return new vector after scale
      */
     public Vector scale(double myScale) {
-        return new Vector(super.xyz.scale(myScale));
+        return new Vector(xyz.d1 * myScale, xyz.d2 * myScale, xyz.d3 * myScale);
     }
 
     /**
@@ -95,7 +95,8 @@ public class Vector extends Point{
      * @return Normalized vector
      */
     public Vector normalize() {
-        return new Vector(this.xyz.d1/length(),this.xyz.d2/length(),this.xyz.d3/length());
+        double length = length(); // calculated once for all the coordinates
+        return new Vector(this.xyz.d1 / length, this.xyz.d2 / length, this.xyz.d3 / length);
     }
     /**
      * create vector normal to this vector
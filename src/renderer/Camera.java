@@ -4,11 +4,10 @@ import primitives.*;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.IntStream;
 import java.util.MissingResourceException;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import static primitives.Util.*;
 
@@ -33,10 +32,13 @@ public class Camera implements Cloneable {
     private RayTracerBase rayTracer;
     private int numOfRays = 1;// the paramter of the number of rays
 
-    private int threadsCount = 0; // -2 auto, -1 range/stream, 0 no threads, 1+ number of threads
+    private int threadsCount = 0; // -2 auto, -1 fork/join, 0 no threads, 1+ number of threads
     private final int SPARE_THREADS = 2; // Spare threads if trying to use all the cores
     private double printInterval = 0; // printing progress percentage interval
+    private RenderSession session = null; // renders with several threads, null for rendering on the calling thread
+    private boolean virtualThreads = false; // whether the threads of the camera's own session are virtual
     private boolean adaptive = false;
+    private boolean antiAliasing = false; // whether a beam of numOfRays rays is cast through each pixel that isn't adaptive
 
     private Camera() {
     }
@@ -68,9 +70,23 @@ public class Camera implements Cloneable {
             return this;
         }
 
+        /**
+         * Set whether a beam of rays (as many as given to setNumOfRays) is cast
+         * through each pixel, when the pixels aren't rendered adaptively -
+         * otherwise a single ray is cast through the pixel's center
+         *
+         * @param antiAliasing whether a beam of rays is cast through each pixel
+         * @return The Builder instance for method chaining.
+         */
+        public Builder setAntiAliasing(boolean antiAliasing) {
+            camera.antiAliasing = antiAliasing;
+            return this;
+        }
+
         public Builder setMultithreading(int threads) {
             if (threads < -2)
                 throw new IllegalArgumentException("Multithreading must be -2 or higher");
+            camera.virtualThreads = false;
             if (threads >= -1)
                 camera.threadsCount = threads;
             else { // == -2
@@ -80,6 +96,39 @@ public class Camera implements Cloneable {
             return this;
         }
 
+        /**
+         * Render the tiles on virtual threads, which share the JVM's carrier
+         * threads with all the other renders
+         *
+         * @param parallelism the amount of virtual threads of each render - the most
+         *                    carrier threads the render uses at once
+         * @return The Builder instance for method chaining.
+         * @throws IllegalArgumentException      if the parallelism isn't positive
+         * @throws UnsupportedOperationException if the JDK has no virtual threads
+         */
+        public Builder setVirtualThreads(int parallelism) {
+            if (parallelism <= 0)
+                throw new IllegalArgumentException("Virtual threads parallelism must be positive");
+            if (!RenderSession.hasVirtualThreads())
+                throw new UnsupportedOperationException("Virtual threads need JDK 21 or later");
+            camera.threadsCount = parallelism;
+            camera.virtualThreads = true;
+            return this;
+        }
+
+        /**
+         * Set a render session for the camera, instead of a session of its own
+         * with the amount of threads given to setMultithreading - several
+         * cameras can share a session, and sessions can share an executor
+         *
+         * @param session the render session
+         * @return The Builder instance for method chaining.
+         */
+        public Builder setRenderSession(RenderSession session) {
+            camera.session = session;
+            return this;
+        }
+
         public Builder setDebugPrint(double interval) {
             camera.printInterval = interval;
             return this;
@@ -223,11 +272,20 @@ public class Camera implements Cloneable {
             if (camera.rayTracer == null)
                 throw new MissingResourceException("The render's field rayTracer mustn't be null", "ImageWriter", null);
             // Attempt to clone the camera instance
+            Camera result;
             try {
-                return (Camera) camera.clone(); // Cloneable � get a full copy
+                result = (Camera) camera.clone(); // Cloneable � get a full copy
             } catch (CloneNotSupportedException e) {
                 throw new RuntimeException(e);
             }
+            // each built camera gets a session of its own, unless it was given one
+            if (result.session == null && result.threadsCount > 0)
+                result.session = result.virtualThreads
+                        ? RenderSession.virtualThreads(result.threadsCount)
+                        : new RenderSession(result.threadsCount);
+            else if (result.session == null && result.threadsCount == -1)
+                result.session = new RenderSession(ForkJoinPool.commonPool());
+            return result;
         }
     } // end of Builder class
 
@@ -260,46 +318,6 @@ public class Camera implements Cloneable {
         return new Ray(p0, vIJ);
     }
 
-    /**
-     * This function renders image's pixel color map from the scene included with
-     * the Renderer object, including the use in beam of rays. This is a wrapping
-     * function to the function renderImageThreaded.
-     *
-     * @param numOfRays the number of rays wanted in the beam when using a beam of
-     *                  rays for picture improvement
-     */
-    /**
-     public Camera renderImage() throws MissingResourceException {
-     if (this.imageWriter == null || this.p0 == null || this.vUp == null || this.vRight == null || this.vTo == null)
-     throw new MissingResourceException("Missing filed in camera", "", "");
-     if (this.rayTracer == null)
-     throw new UnsupportedOperationException("Missing rayTracerBase");
-     final int nX = imageWriter.getNx();
-     final int nY = imageWriter.getNy();
-
-
-     PixelManager.initialize(nY, nX, printInterval);
-     if (threadsCount == 0)
-     for (int i = 0; i < nY; ++i)
-     for (int j = 0; j < nX; ++j)
-     castRay(nX, nY, j, i,numOfRays);
-     else if (threadsCount == -1) {
-     IntStream.range(0, nY).parallel() //
-     .forEach(i -> IntStream.range(0, nX).parallel() //
-     .forEach(j -> castRay(nX, nY, j, i,numOfRays)));}
-     else {
-     var threads = new LinkedList<Thread>();
-     while (threadsCount-- > 0)
-     threads.add(new Thread(() -> {
-     Pixel pixel;
-     while ((pixel = PixelManager.nextPixel()) != null)
-     castRay(nX, nY, pixel.col(), pixel.row(),numOfRays);
-     }));
-     for (var thread : threads) thread.start();
-     try { for (var thread : threads) thread.join(); } catch (InterruptedException ignore) {}}
-     return this;
-     }*/
-
     /**
 
      Renders the image using the configured ray tracer and image writer.
@@ -313,46 +331,37 @@ public class Camera implements Cloneable {
         if (this.rayTracer == null)
             throw new UnsupportedOperationException("Missing rayTracerBase");
 
+        // built by the first render of the scene, and shared by the next ones
+        rayTracer.scene.buildAcceleration();
 
-        Pixel.initialize(imageWriter.getNy(), imageWriter.getNx(), 1);
-
-        if(threadsCount==0){
-            for (int i = 0; i < this.imageWriter.getNy(); i++) {
-                for (int j = 0; j < this.imageWriter.getNy(); j++) {
-                    Color color = castRay(j,i);
-                    this.imageWriter.writePixel(j, i, color);
-                }
-            }
+        if(session==null){
+            // the same pixels as the session's workers render, only one after the other
+            for (int i = 0; i < this.imageWriter.getNy(); i++)
+                for (int j = 0; j < this.imageWriter.getNx(); j++)
+                    this.imageWriter.writePixel(j, i, renderPixel(j, i));
             return this;
         }
 
-        if (!adaptive) {
-            while (threadsCount-- > 0) {//number of threads to be used for rendering
-                new Thread(() -> {//This creates and starts a new thread
-                    for (Pixel pixel = new Pixel(); pixel.nextPixel(); Pixel.pixelDone())//A new Pixel object is created,The loop continues as long as there are more pixels to process.
-                        imageWriter.writePixel(pixel.col, pixel.row, rayTracer.traceRay(constructRay(imageWriter.getNx(), imageWriter.getNy(), pixel.col, pixel.row)));//For each pixel, imageWriter.writePixel() is called to write the color of the pixel traced by rayTracer.traceRay()
-                }).start();
-            }
-            Pixel.waitToFinish();// starting all the threads,until all pixels to be processed
-        } else {//adaptive rendering should be used.
-            while (threadsCount-- > 0) {
-                new Thread(() -> {
-                    for (Pixel pixel = new Pixel(); pixel.nextPixel(); Pixel.pixelDone())
-                        imageWriter.writePixel(pixel.col, pixel.row, AdaptiveSuperSampling(imageWriter.getNx(), imageWriter.getNy(), pixel.col, pixel.row,numOfRays));//AdaptiveSuperSampling() to determine the color of each pixel.
-                }).start();
-            }
-            Pixel.waitToFinish();
-        }
+        // the session's workers take tiles of pixels until there are no more
+        session.render(imageWriter, printInterval, this::renderPixel);
         return this;
     }
 
-    private Color castRay(int j,int i){
-        Ray ray = constructRay(
-                this.imageWriter.getNx(),
-                this.imageWriter.getNy(),
-                j,
-                i);
-        return this.rayTracer.traceRay(ray);
+    /**
+     * Renders one pixel of the image - by adaptive super sampling if it is used,
+     * otherwise by a beam of rays through the pixel if anti-aliasing is used, or
+     * by a ray through its center
+     * @param col pixel's column number (pixel index in row)
+     * @param row pixel's row number (pixel index in column)
+     * @return the color of the pixel
+     */
+    private Color renderPixel(int col, int row) {
+        int nX = imageWriter.getNx(), nY = imageWriter.getNy();
+        if (adaptive)
+            return AdaptiveSuperSampling(nX, nY, col, row, numOfRays);
+        if (antiAliasing && numOfRays > 1)
+            return rayTracer.traceRay(constructBeamThroughPixel(nX, nY, col, row, numOfRays));
+        return rayTracer.traceRay(constructRay(nX, nY, col, row));
     }
 
     /**
@@ -456,41 +465,6 @@ public class Camera implements Cloneable {
         return this;
     }
 
-    /**
-     * Cast ray from camera in order to color a pixel
-     *
-     * @param nX  resolution on X axis (number of pixels in row)
-     * @param nY  resolution on Y axis (number of pixels in column)
-     * @param col pixel's column number (pixel index in row)
-     * @param row pixel's row number (pixel index in column)
-     *
-     */
-    private void castRay(int nX, int nY, int col, int row) {
-        Ray ray = constructRay(nX, nY, col, row);
-        Color color = this.rayTracer.traceRay(ray);
-        imageWriter.writePixel(col, row, color);
-    }
-    /**
-     * Cast ray from camera in order to color a pixel
-     *
-     * @param nX  resolution on X axis (number of pixels in row)
-     * @param nY  resolution on Y axis (number of pixels in column)
-     * @param col pixel's column number (pixel index in row)
-     * @param row pixel's row number (pixel index in column)
-     *
-     */
-    private void castRay(int nX, int nY, int col, int row, int numOfRays) {
-        if (numOfRays == 1 || numOfRays == 0) {
-            Ray ray = constructRay(nX, nY, col, row);
-            Color rayColor = rayTracer.traceRay(ray);
-            imageWriter.writePixel(col, row, rayColor);
-        } else {
-            List<Ray> rays = constructBeamThroughPixel(nX, nY, col, row, numOfRays);
-            Color rayColor = rayTracer.traceRay(rays);
-            imageWriter.writePixel(col, row, rayColor);
-        }
-
-    }
     /**
      * Constructs a beam of rays passing through a specific pixel on the image
      * plane.
@@ -0,0 +1,210 @@
+package renderer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * Renders an image on a fork/join pool: the image is split recursively into
+ * regions of tiles, and idle workers steal regions from the busy ones.<br/>
+ * The regions are split by the estimated cost of their tiles and not by their
+ * size, so an expensive part of the image (glass, mirrors) is split finer than
+ * the cheap background around it. The cost of each tile is measured while it
+ * is rendered, and is the estimate for the next render of the same size - the
+ * first render estimates it by a coarse pre-pass, which renders one pixel of
+ * each tile
+ * @author Michal and Tamar
+ */
+class ForkJoinRender {
+    /** Amount of regions for each worker the image is split into, at least */
+    private static final int REGIONS_PER_WORKER = 16;
+
+    /**
+     * Measured cost of rendering each tile of an image
+     * @param nX    columns of pixels in the image
+     * @param nY    rows of pixels in the image
+     * @param tiles cost of each tile (row by row), in nanoseconds
+     */
+    record Costs(int nX, int nY, long[] tiles) {
+    }
+
+    /** Columns of pixels in the image */
+    private final int nX;
+    /** Rows of pixels in the image */
+    private final int nY;
+    /** the image */
+    private final ImageWriter writer;
+    /** the tiles and the progress of the render */
+    private final TileScheduler scheduler;
+    /** renders each pixel */
+    private final RenderSession.PixelRenderer renderer;
+    /** Amount of tiles in a row of tiles */
+    private final int tilesX;
+    /** Amount of tiles in a column of tiles */
+    private final int tilesY;
+    /** estimated cost of each tile from the previous render, null if there is none */
+    private final long[] previous;
+    /** cost of each tile measured in this render */
+    private final long[] measured;
+    /** sums of the estimated costs of the tiles above and left of each tile corner */
+    private final long[] sums;
+    /** maximal cost of a region that isn't split */
+    private long threshold;
+
+    /**
+     * ctor
+     * @param writer   the image
+     * @param renderer renders each pixel
+     * @param previous costs measured in the previous render, null if there was none
+     */
+    ForkJoinRender(ImageWriter writer, RenderSession.PixelRenderer renderer, Costs previous) {
+        this.writer = writer;
+        this.nX = writer.getNx();
+        this.nY = writer.getNy();
+        this.renderer = renderer;
+        scheduler = new TileScheduler(nX, nY);
+        tilesX = scheduler.getTilesX();
+        tilesY = scheduler.getTilesY();
+        // the costs of another image size don't fit the tiles
+        this.previous = previous != null && previous.nX() == nX && previous.nY() == nY ? previous.tiles() : null;
+        measured = new long[tilesX * tilesY];
+        sums = new long[(tilesX + 1) * (tilesY + 1)];
+    }
+
+    /**
+     * Renders all the pixels of the image, and waits for them to be done
+     * @param pool     the pool of the workers
+     * @param interval print time interval in seconds, 0 if printing is not required
+     * @return the costs of the tiles measured in this render
+     * @throws IllegalStateException if rendering a pixel failed
+     */
+    Costs render(ForkJoinPool pool, double interval) {
+        int regions = pool.getParallelism() * REGIONS_PER_WORKER;
+        pool.execute(() -> {
+            try {
+                estimate(previous != null ? previous : prePass());
+                threshold = cost(0, 0, tilesX, tilesY) / regions;
+                new Region(0, 0, tilesX, tilesY).invoke();
+            } catch (RuntimeException | Error e) {
+                scheduler.fail(e);
+            }
+        });
+        scheduler.waitToFinish(interval);
+        return new Costs(nX, nY, measured);
+    }
+
+    /**
+     * Estimates the cost of each tile by the time of rendering its center pixel
+     * @return the estimated cost of each tile (row by row), in nanoseconds
+     */
+    private long[] prePass() {
+        long[] estimates = new long[tilesX * tilesY];
+        // a parallel stream in a task of the pool runs on the pool
+        IntStream.range(0, estimates.length).parallel().forEach(index -> {
+            TileScheduler.Tile tile = scheduler.getTile(index % tilesX, index / tilesX);
+            long start = System.nanoTime();
+            // the pixel is rendered again with its tile
+            renderer.renderPixel((tile.x0() + tile.x1()) / 2, (tile.y0() + tile.y1()) / 2);
+            estimates[index] = (System.nanoTime() - start) * tile.pixels();
+        });
+        return estimates;
+    }
+
+    /**
+     * Prepares the sums of the estimated costs, for the cost of any region in
+     * constant time
+     * @param estimates the estimated cost of each tile (row by row)
+     */
+    private void estimate(long[] estimates) {
+        int width = tilesX + 1;
+        for (int y = 0; y < tilesY; ++y)
+            for (int x = 0; x < tilesX; ++x)
+                // each tile costs at least 1, so a region of tiles too fast to
+                // measure is still split by its size
+                sums[(y + 1) * width + x + 1] = estimates[y * tilesX + x] + 1
+                        + sums[y * width + x + 1] + sums[(y + 1) * width + x] - sums[y * width + x];
+    }
+
+    /**
+     * Estimated cost of a region of tiles
+     * @param x0 first column of tiles
+     * @param y0 first row of tiles
+     * @param x1 column of tiles after the region
+     * @param y1 row of tiles after the region
+     * @return the sum of the estimated costs of the region's tiles
+     */
+    private long cost(int x0, int y0, int x1, int y1) {
+        int width = tilesX + 1;
+        return sums[y1 * width + x1] - sums[y0 * width + x1] - sums[y1 * width + x0] + sums[y0 * width + x0];
+    }
+
+    /**
+     * A rectangular region of tiles, rendered by splitting it into two regions of
+     * about the same cost until a region is cheap enough
+     */
+    // serializable only through ForkJoinTask - a region is never serialized, it lives
+    // only during a render and refers to the render that isn't serializable
+    @SuppressWarnings("serial")
+    private final class Region extends RecursiveAction {
+        /** first column of tiles */
+        private final int x0;
+        /** first row of tiles */
+        private final int y0;
+        /** column of tiles after the region */
+        private final int x1;
+        /** row of tiles after the region */
+        private final int y1;
+
+        /**
+         * ctor
+         * @param x0 first column of tiles
+         * @param y0 first row of tiles
+         * @param x1 column of tiles after the region
+         * @param y1 row of tiles after the region
+         */
+        Region(int x0, int y0, int x1, int y1) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+        }
+
+        @Override
+        protected void compute() {
+            int width = x1 - x0, height = y1 - y0;
+            long cost = cost(x0, y0, x1, y1);
+            if (width * height == 1 || cost <= threshold) {
+                renderTiles();
+                return;
+            }
+            // split across the longer side, where the costs of the two parts are balanced
+            if (width >= height) {
+                int split = x0 + 1;
+                while (split < x1 - 1 && 2 * cost(x0, y0, split, y1) < cost)
+                    ++split;
+                invokeAll(new Region(x0, y0, split, y1), new Region(split, y0, x1, y1));
+            } else {
+                int split = y0 + 1;
+                while (split < y1 - 1 && 2 * cost(x0, y0, x1, split) < cost)
+                    ++split;
+                invokeAll(new Region(x0, y0, x1, split), new Region(x0, split, x1, y1));
+            }
+        }
+
+        /**
+         * Renders the tiles of the region, and measures their costs
+         */
+        private void renderTiles() {
+            int[] buffer = new int[TileScheduler.TILE_SIZE * TileScheduler.TILE_SIZE];
+            for (int y = y0; y < y1; ++y)
+                for (int x = x0; x < x1; ++x) {
+                    if (scheduler.isFailed()) return;
+                    TileScheduler.Tile tile = scheduler.getTile(x, y);
+                    long start = System.nanoTime();
+                    RenderSession.renderTile(tile, writer, renderer, buffer);
+                    measured[y * tilesX + x] = System.nanoTime() - start;
+                    scheduler.tileDone(tile);
+                }
+        }
+    }
+}
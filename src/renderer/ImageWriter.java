@@ -1,6 +1,7 @@
 package renderer;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
 import java.util.logging.Level;
@@ -27,6 +28,8 @@ public class ImageWriter {
 
    /** Image generation buffer (the matrix of the pixels) */
    private BufferedImage       image;
+   /** The array behind the image buffer - the pixels row by row, packed as 0xRRGGBB */
+   private final int[]         pixels;
    /** image file name, not including the file extension '.png' */
    private String              imageName;
    /** logger for reporting I/O failures */
@@ -43,6 +46,7 @@ public class ImageWriter {
       this.nY        = nY;
 
       image          = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+      pixels         = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
    }
 
    // ***************** Getters/Setters ********************** //
@@ -75,7 +79,39 @@ public class ImageWriter {
     * @param yIndex Y axis index of the pixel
     * @param color  final color of the pixel */
    public void writePixel(int xIndex, int yIndex, Color color) {
-      image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+      // a column out of the row would be another pixel in the array, so it is checked as the image does
+      if (xIndex < 0 || xIndex >= nX) throw new ArrayIndexOutOfBoundsException("Coordinate out of bounds!");
+      pixels[yIndex * nX + xIndex] = color.getRGB();
+   }
+
+   /** The function readPixel reads the color of a specific pixel from pixel color
+    * matrix
+    * @param xIndex X axis index of the pixel
+    * @param yIndex Y axis index of the pixel
+    * @return the color of the pixel, packed as 0xRRGGBB */
+   int readPixel(int xIndex, int yIndex) {
+      return pixels[yIndex * nX + xIndex];
+   }
+
+   /** The function writeTile writes the colors of a rectangle of pixels into
+    * pixel color matrix at once - the rows of the rectangle are copied into
+    * the array behind the image
+    * @param x0     X axis index of the rectangle's first pixel
+    * @param y0     Y axis index of the rectangle's first pixel
+    * @param width  amount of pixels in a row of the rectangle
+    * @param height amount of rows of the rectangle
+    * @param rgb    colors of the rectangle's pixels row by row, packed as 0xRRGGBB
+    *               (see {@link Color#getRGB()})
+    * @throws IllegalArgumentException if the rectangle isn't inside the image,
+    *                                  or there are fewer colors than its pixels */
+   public void writeTile(int x0, int y0, int width, int height, int[] rgb) {
+      // a row out of the image's row would wrap into the next one, so the whole rectangle is checked first
+      if (x0 < 0 || y0 < 0 || width < 0 || height < 0 || width > nX - x0 || height > nY - y0)
+         throw new IllegalArgumentException("Tile out of bounds!");
+      if (rgb.length < width * height)
+         throw new IllegalArgumentException("Too few colors for the tile");
+      for (int row = 0; row < height; ++row)
+         System.arraycopy(rgb, row * width, pixels, (y0 + row) * nX + x0, width);
    }
 
 }
@@ -0,0 +1,238 @@
+package renderer;
+
+import primitives.Color;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A render session renders images with a pool of workers. Each render has a
+ * scheduler and progress of its own, so a session can be reused for any number
+ * of renders, and several renders can run at once.<br/>
+ * The workers are either threads of the session itself, or tasks on an
+ * executor shared with other sessions - then the executor bounds the amount of
+ * threads of all the renders together. On a fork/join pool, the image is split
+ * by the cost of its parts and the workers steal the parts from each other
+ * (see {@link ForkJoinRender})
+ * @author Michal and Tamar
+ */
+public class RenderSession implements AutoCloseable {
+    /** Time an idle thread of the session is kept before it ends, in seconds */
+    private static final long KEEP_ALIVE = 1;
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor(), null if the JDK has no virtual
+     * threads - it is found at run time, so the sources still build on older JDKs
+     */
+    private static final Method VIRTUAL_THREADS_EXECUTOR = findVirtualThreadsExecutor();
+
+    /**
+     * Renders a pixel of an image - must be safe to call from several threads
+     * at once for different pixels
+     */
+    @FunctionalInterface
+    interface PixelRenderer {
+        /**
+         * Renders a pixel
+         * @param col pixel's column number (pixel index in row)
+         * @param row pixel's row number (pixel index in column)
+         * @return the color of the pixel
+         */
+        Color renderPixel(int col, int row);
+    }
+
+    /** the executor that runs the workers */
+    private final ExecutorService executor;
+    /** whether the executor is the session's own */
+    private final boolean ownExecutor;
+    /** amount of workers of each render */
+    private final int workers;
+    /** the fork/join pool of the session, null if the workers take the tiles in order */
+    private final ForkJoinPool forkJoinPool;
+    /** costs of the tiles in the last fork/join render, null if there was none */
+    private volatile ForkJoinRender.Costs costs = null;
+
+    /**
+     * ctor of a session with threads of its own - the threads end when they are
+     * idle, so a session that isn't closed doesn't keep them
+     * @param workers amount of threads
+     * @throws IllegalArgumentException if there are no workers
+     */
+    public RenderSession(int workers) {
+        this(createExecutor(workers), workers, true);
+    }
+
+    /**
+     * ctor of a session with a shared executor - the session doesn't shut it down
+     * @param executor the executor that runs the workers
+     * @param workers  amount of workers of each render
+     * @throws IllegalArgumentException if there are no workers
+     */
+    public RenderSession(ExecutorService executor, int workers) {
+        this(executor, workers, false);
+    }
+
+    /**
+     * Creates a session that runs each worker on a virtual thread of its own.
+     * Virtual threads share the JVM's carrier threads (as many as the cores, or
+     * the jdk.virtualThreadScheduler.parallelism property), so many small
+     * renders can run at once without a pool of platform threads for each
+     * one - the amount of workers bounds how many carriers a render uses at most
+     * @param workers amount of workers of each render
+     * @return the session
+     * @throws IllegalArgumentException      if there are no workers
+     * @throws UnsupportedOperationException if the JDK has no virtual threads
+     */
+    public static RenderSession virtualThreads(int workers) {
+        if (workers <= 0)
+            throw new IllegalArgumentException("A render session must have workers");
+        if (!hasVirtualThreads())
+            throw new UnsupportedOperationException("Virtual threads need JDK 21 or later");
+        try {
+            return new RenderSession((ExecutorService) VIRTUAL_THREADS_EXECUTOR.invoke(null), workers, true);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Can't create a virtual thread per task executor", e);
+        }
+    }
+
+    /**
+     * Checks whether the JDK has virtual threads, for {@link #virtualThreads(int)}
+     * @return true if it has them
+     */
+    public static boolean hasVirtualThreads() {
+        return VIRTUAL_THREADS_EXECUTOR != null;
+    }
+
+    /**
+     * Looks for Executors.newVirtualThreadPerTaskExecutor()
+     * @return the method, null if the JDK doesn't have it
+     */
+    private static Method findVirtualThreadsExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * ctor of a session that splits the images on a fork/join pool, which may be
+     * shared - the session doesn't shut it down
+     * @param pool the fork/join pool
+     */
+    public RenderSession(ForkJoinPool pool) {
+        if (pool == null)
+            throw new IllegalArgumentException("A render session must have a pool");
+        this.executor = pool;
+        this.workers = pool.getParallelism();
+        this.ownExecutor = false;
+        this.forkJoinPool = pool;
+    }
+
+    /**
+     * ctor
+     * @param executor    the executor that runs the workers
+     * @param workers     amount of workers of each render
+     * @param ownExecutor whether the executor is the session's own
+     */
+    private RenderSession(ExecutorService executor, int workers, boolean ownExecutor) {
+        if (workers <= 0)
+            throw new IllegalArgumentException("A render session must have workers");
+        this.executor = executor;
+        this.workers = workers;
+        this.ownExecutor = ownExecutor;
+        this.forkJoinPool = null;
+    }
+
+    /**
+     * Creates the session's own executor - daemon threads, which end when they are idle
+     * @param workers amount of threads
+     * @return the executor
+     */
+    private static ExecutorService createExecutor(int workers) {
+        if (workers <= 0)
+            throw new IllegalArgumentException("A render session must have workers");
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, KEEP_ALIVE, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "render");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * @return amount of workers of each render
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Renders all the pixels of an image, and waits for them to be done
+     * @param writer   the image
+     * @param interval print time interval in seconds, 0 if printing is not required
+     * @param renderer renders each pixel
+     * @throws IllegalStateException if rendering a pixel failed
+     */
+    void render(ImageWriter writer, double interval, PixelRenderer renderer) {
+        if (forkJoinPool != null) {
+            // the costs measured now estimate the costs of the next render
+            costs = new ForkJoinRender(writer, renderer, costs).render(forkJoinPool, interval);
+            return;
+        }
+        TileScheduler scheduler = new TileScheduler(writer.getNx(), writer.getNy());
+        for (int i = 0; i < workers; ++i)
+            executor.execute(() -> work(scheduler, writer, renderer));
+        scheduler.waitToFinish(interval);
+    }
+
+    /**
+     * A worker - renders tiles from the scheduler until there are no more, each
+     * into a buffer of its own which is written into the image at once
+     * @param scheduler the scheduler of the render
+     * @param writer    the image
+     * @param renderer  renders each pixel
+     */
+    private static void work(TileScheduler scheduler, ImageWriter writer, PixelRenderer renderer) {
+        try {
+            int[] buffer = new int[TileScheduler.TILE_SIZE * TileScheduler.TILE_SIZE];
+            for (TileScheduler.Tile tile = scheduler.nextTile(); tile != null; tile = scheduler.nextTile()) {
+                renderTile(tile, writer, renderer, buffer);
+                scheduler.tileDone(tile);
+            }
+        } catch (RuntimeException | Error e) {
+            scheduler.fail(e);
+        }
+    }
+
+    /**
+     * Renders a tile into a buffer, and writes the buffer into the image
+     * @param tile     the tile
+     * @param writer   the image
+     * @param renderer renders each pixel
+     * @param buffer   buffer for the tile's colors, at least as big as the tile
+     */
+    static void renderTile(TileScheduler.Tile tile, ImageWriter writer, PixelRenderer renderer, int[] buffer) {
+        int index = 0;
+        for (int row = tile.y0(); row < tile.y1(); ++row)
+            for (int col = tile.x0(); col < tile.x1(); ++col)
+                buffer[index++] = renderer.renderPixel(col, row).getRGB();
+        writer.writeTile(tile.x0(), tile.y0(), tile.x1() - tile.x0(), tile.y1() - tile.y0(), buffer);
+    }
+
+    /**
+     * Shuts down the session's own threads - a shared executor is left running
+     */
+    @Override
+    public void close() {
+        if (ownExecutor)
+            executor.shutdown();
+    }
+}
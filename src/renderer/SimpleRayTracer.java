@@ -1,6 +1,7 @@
 
 package renderer;
 
+import java.util.Iterator;
 import java.util.List;
 import static primitives.Util.*;
 import geometries.Intersectable.GeoPoint;
@@ -9,11 +10,13 @@ import lighting.SpotLight;
 import primitives.Color;
 import primitives.Double3;
 import primitives.Material;
+import primitives.MutableDouble3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Util;
 import primitives.Vector;
 import java.util.LinkedList;
+import java.util.concurrent.ForkJoinTask;
 
 import scene.Scene;
 
@@ -23,6 +26,26 @@ public class SimpleRayTracer extends RayTracerBase
     private static final int MAX_CALC_COLOR_LEVEL = 10;
     private static final double MIN_CALC_COLOR_K = 0.001;
     private static final Double3 INIT_CALC_COLOR_K = Double3.ONE;
+    // depth of subdivision of a pixel from which its quadrants are computed in parallel on a fork/join pool
+    private static final int PARALLEL_SUBDIVISION_DEPTH = 2;
+    // scratch values of the local effects of each thread - a point's local effects are done
+    // before the rays of its global effects are traced, so one set serves the whole recursion
+    private static final ThreadLocal<Shading> SHADING = ThreadLocal.withInitial(Shading::new);
+
+    /**
+     * Scratch triads of the local effects of a point, so the loop over the light
+     * sources doesn't create a vector or a color for each light
+     */
+    private static final class Shading {
+        /** the light vector */
+        final MutableDouble3 l = new MutableDouble3();
+        /** the light's intensity at the point */
+        final MutableDouble3 intensity = new MutableDouble3();
+        /** the diffusive and specular factor */
+        final MutableDouble3 factor = new MutableDouble3();
+        /** the color of the point */
+        final MutableDouble3 color = new MutableDouble3();
+    }
 
 
     @Override
@@ -35,9 +58,13 @@ public class SimpleRayTracer extends RayTracerBase
         if(rays == null)
             return scene.background;
         Color color = scene.background;
+        // the rays of a beam are nearly parallel, so they are traced together in packets
+        List<GeoPoint> closestPoints = scene.geometries.findClosestGeoIntersections(rays);
+        Iterator<GeoPoint> closestPoint = closestPoints.iterator();
         for (Ray ray : rays)
         {
-            color = color.add(traceRay(ray));
+            GeoPoint geoPoint = closestPoint.next();
+            color = color.add(geoPoint == null ? scene.background : calcColor(geoPoint, ray));
         }
         color = color.add(scene.ambientLight.getIntensity());
         int size = rays.size();
@@ -51,8 +78,8 @@ public class SimpleRayTracer extends RayTracerBase
 
     @Override
     public Color traceRay(Ray ray) {
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray);
-        return intersections == null ? scene.background : calcColor(ray.findClosestGeoPoint(intersections), ray);
+        GeoPoint closestPoint = findClosestIntersection(ray);
+        return closestPoint == null ? scene.background : calcColor(closestPoint, ray);
     }
     /**
 
@@ -61,15 +88,20 @@ public class SimpleRayTracer extends RayTracerBase
      *
      * @param geoPoint geometry point
      * @param ray      ray
+     * @param normal   normal of the geometry at the point
      * @return color
      */
-    private Color calcGlobalEffects(GeoPoint geoPoint, Ray ray, int level, Double3 k) {
+    private Color calcGlobalEffects(GeoPoint geoPoint, Ray ray, Vector normal, int level, Double3 k) {
         Color color = Color.BLACK;
         Material material = geoPoint.geometry.getMaterial();
-        Ray reflectedRay = constructReflectionRay(geoPoint, geoPoint.geometry.getNormal(geoPoint.point), ray.getDirection());
-        Ray refractedRay = constructRefractionRay(geoPoint, geoPoint.geometry.getNormal(geoPoint.point), ray.getDirection());
-        return calcGlobalEffects(geoPoint, level, color, material.kR, k, reflectedRay)
-                .add(calcGlobalEffects(geoPoint, level, color, material.kT, k, refractedRay));
+        // a ray is constructed only for an effect that is strong enough to be seen
+        if (!material.kR.productLowerThan(k, MIN_CALC_COLOR_K))
+            color = calcGlobalEffects(geoPoint, level, color, material.kR, k,
+                    constructReflectionRay(geoPoint, normal, ray.getDirection()));
+        if (!material.kT.productLowerThan(k, MIN_CALC_COLOR_K))
+            color = calcGlobalEffects(geoPoint, level, color, material.kT, k,
+                    constructRefractionRay(geoPoint, normal, ray.getDirection()));
+        return color;
     }
 
     /**
@@ -92,34 +124,6 @@ public class SimpleRayTracer extends RayTracerBase
         return color;
     }
 
-    /**
-     * function calculates specular color
-     *
-     * @param material    material of geometry
-     * @param normal      normal of geometry
-     * @param lightVector light vector
-     * @param nl          dot product of normal and light vector
-     * @param vector      direction of ray
-     * @return specular color
-     */
-    private Double3 calcSpecular(Material material, Vector normal, Vector lightVector, double nl, Vector vector) {
-        Vector reflectedVector = lightVector.subtract(normal.scale(2 * nl));
-        double cosTeta = alignZero(-vector.dotProduct(reflectedVector));
-        return cosTeta <= 0 ? Double3.ZERO : material.kS.scale(Math.pow(cosTeta, material.nShininess));
-
-    }
-
-    /**
-     * function calculates diffusive color
-     *
-     * @param material material of geometry
-     * @param nl dot product of normal and light vector
-     * @return diffusive color
-     */
-    private Double3 calcDiffusive(Material material, double nl) {
-        return material.kD.scale(Math.abs(nl));
-    }
-
     /**
      * function calculates color of point
      *
@@ -127,38 +131,58 @@ public class SimpleRayTracer extends RayTracerBase
      * @return color
      */
     private Color calcColor(GeoPoint geoPoint, Ray ray, int level, Double3 k) {
-        Color color = calcLocalEffects(geoPoint, ray, k);
-        return 1 == level ? color : color.add(calcGlobalEffects(geoPoint, ray, level, k));
+        // the normal is calculated once for the local and the global effects
+        Vector normal = geoPoint.geometry.getNormal(geoPoint.point);
+        Color color = calcLocalEffects(geoPoint, ray, normal, k);
+        return 1 == level ? color : color.add(calcGlobalEffects(geoPoint, ray, normal, level, k));
     }
 
 
 
 
-    private Color calcLocalEffects(GeoPoint geoPoint, Ray ray,Double3 k)
+    /**
+     * function calculates the color of a point by the light sources - the
+     * diffusive and specular factors and the light of each source are calculated
+     * in scratch triads, and the color is created once for all the sources
+     *
+     * @param geoPoint point to color
+     * @param ray      the ray that reached the point
+     * @param normal   normal of the geometry at the point
+     * @param k        the attenuation of the point's color on the way to the camera
+     * @return color
+     */
+    private Color calcLocalEffects(GeoPoint geoPoint, Ray ray, Vector normal, Double3 k)
     {
-        Color color = geoPoint.geometry.getEmission();
         Vector vector = ray.getDirection();
-        Vector normal = geoPoint.geometry.getNormal(geoPoint.point);
         double nv = alignZero(normal.dotProduct(vector));
         if (nv == 0)
-            return color;
+            return geoPoint.geometry.getEmission();
         Material material = geoPoint.geometry.getMaterial();
+        Shading shading = SHADING.get();
+        MutableDouble3 lightVector = shading.l;
+        MutableDouble3 color = shading.color.set(geoPoint.geometry.getEmission());
         for (LightSource lightSource : scene.lights) {
-            Vector lightVector = lightSource.getL(geoPoint.point);
-            double nl = alignZero(normal.dotProduct(lightVector));
+            lightSource.getL(geoPoint.point, lightVector);
+            double nl = alignZero(lightVector.dotProduct(normal));
             if (nl * nv > 0)
             {
-                //if (unshaded(geoPoint, lightVector, normal, lightSource)) {
-                Double3 ktr = transparency(geoPoint,lightSource,lightVector,normal);
-                if(!ktr.product(k).lowerThan(MIN_CALC_COLOR_K))
+                double vl = lightVector.dotProduct(vector);
+                Double3 ktr = transparency(geoPoint, lightSource, lightVector, normal);
+                if(!ktr.productLowerThan(k, MIN_CALC_COLOR_K))
                 {
-                    Color iL=lightSource.getIntensity(geoPoint.point).scale(ktr);
-                    color=color.add(iL.scale(calcDiffusive(material, nl)),iL.scale(calcSpecular(material, normal, lightVector, nl, vector)));
+                    // diffusive kD|n.l| and specular kS(-v.r)^nSh, for the reflected light
+                    // vector r = l - 2(n.l)n expanded into the dot products
+                    MutableDouble3 factor = shading.factor.set(material.kD).scale(Math.abs(nl));
+                    double cosTeta = alignZero(2 * nl * nv - vl);
+                    if (cosTeta > 0)
+                        factor.addScaled(material.kS, Math.pow(cosTeta, material.nShininess));
+                    lightSource.getIntensity(geoPoint.point, shading.intensity);
+                    color.addProduct(shading.intensity, ktr, factor);
                 }
 
             }
         }
-        return color;
+        return color.toColor();
     }
 
 
@@ -208,9 +232,7 @@ public class SimpleRayTracer extends RayTracerBase
      * @return The closest intersection point with the ray.
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray);
-        if (intersections == null) return null;
-        return ray.findClosestGeoPoint(intersections);
+        return scene.geometries.findClosestGeoIntersection(ray);
     }
 
     private Color calcColor(GeoPoint geoPoint, Ray ray) {
@@ -246,23 +268,14 @@ public class SimpleRayTracer extends RayTracerBase
 //        }
 //        return ktr;
 //    }
-    private Double3 transparency(GeoPoint geopoint, LightSource light, Vector l, Vector n) {
-        Vector lightDirection = l.scale(-1); // from point to light source
+    private Double3 transparency(GeoPoint geopoint, LightSource light, MutableDouble3 l, Vector n) {
+        // from point to light source - the light vector is left as it is for the shading
+        Vector lightDirection = l.toNegatedVector();
         Ray lightRay = new Ray(geopoint.point, lightDirection, n); //build ray with delta
-        double lightDistance = light.getDistance(geopoint.point);
-
-        var intersections = this.scene.geometries.findGeoIntersections(lightRay);
-        if (intersections == null){
-            return Double3.ONE; //no intersections
-        }
-        Double3 ktr = Double3.ONE;
-        for (GeoPoint gp : intersections) {
-            if (alignZero(gp.point.distance(geopoint.point) - lightDistance) <= 0) {
-                ktr = ktr.product(gp.geometry.getMaterial().kT); //the more transparency the less shadow
-                if (ktr.lowerThan(MIN_CALC_COLOR_K)) return Double3.ZERO;
-            }
-        }
-        return ktr;
+        // only the geometries between the point and the light shade it, and the
+        // search stops as soon as the light is blocked
+        double lightDistance = light.getDistance(lightRay.getHead());
+        return scene.geometries.findTransmittance(lightRay, lightDistance, MIN_CALC_COLOR_K);
     }
     /**
      * Checks the color of the pixel with the help of individual rays and averages between
@@ -280,6 +293,28 @@ public class SimpleRayTracer extends RayTracerBase
      */
     @Override
     public Color AdaptiveSuperSamplingRec(Point centerP, double Width, double Height, double minWidth, double minHeight, Point cameraLoc, Vector Vright, Vector Vup, List<Point> prePoints) {
+        return AdaptiveSuperSamplingRec(centerP, Width, Height, minWidth, minHeight, cameraLoc, Vright, Vup, prePoints, 0);
+    }
+
+    /**
+     * Checks the color of the pixel with the help of individual rays and averages between
+     * them and only if necessary continues to send beams of rays in recursion.<br/>
+     * On a fork/join pool, the quadrants of a pixel that is subdivided deep enough are
+     * computed as subtasks, so idle workers help with the expensive pixels (on edges).
+     * Their colors are added in the same order either way, so the result is the same
+     * @param centerP center pixl
+     * @param Width Length
+     * @param Height width
+     * @param minWidth min Width
+     * @param minHeight min Height
+     * @param cameraLoc Camera location
+     * @param Vright Vector right
+     * @param Vup vector up
+     * @param prePoints pre Points
+     * @param depth depth of the subdivision of the pixel
+     * @return Pixel color
+     */
+    private Color AdaptiveSuperSamplingRec(Point centerP, double Width, double Height, double minWidth, double minHeight, Point cameraLoc, Vector Vright, Vector Vup, List<Point> prePoints, int depth) {
         if (Width < minWidth * 2 || Height < minHeight * 2) {
             return this.traceRay(new Ray(cameraLoc, centerP.subtract(cameraLoc))) ;
         }
@@ -319,8 +354,19 @@ public class SimpleRayTracer extends RayTracerBase
 
         //If the colors are not all equal,
         tempColor = primitives.Color.BLACK;//the method initializes tempColor to black
+        // the quadrants are worth subtasks only if they are subdivided further too
+        if (depth >= PARALLEL_SUBDIVISION_DEPTH && ForkJoinTask.inForkJoinPool()
+                && Width / 2 >= minWidth * 2 && Height / 2 >= minHeight * 2) {
+            List<ForkJoinTask<Color>> tasks = new LinkedList<>();
+            for (Point center : nextCenterPList)
+                tasks.add(ForkJoinTask.adapt(() -> AdaptiveSuperSamplingRec(center, Width / 2, Height / 2, minWidth, minHeight, cameraLoc, Vright, Vup, cornersList, depth + 1)));
+            ForkJoinTask.invokeAll(tasks);
+            for (ForkJoinTask<Color> task : tasks)
+                tempColor = tempColor.add(task.join());
+            return tempColor.reduce(nextCenterPList.size());
+        }
         for (Point center : nextCenterPList) {//and recursively calls AdaptiveSuperSamplingRec for each next center point, adding the resulting colors.
-            tempColor = tempColor.add(AdaptiveSuperSamplingRec(center, Width/2,  Height/2,  minWidth,  minHeight ,  cameraLoc, Vright, Vup, cornersList));
+            tempColor = tempColor.add(AdaptiveSuperSamplingRec(center, Width/2,  Height/2,  minWidth,  minHeight ,  cameraLoc, Vright, Vup, cornersList, depth + 1));
         }
         return tempColor.reduce(nextCenterPList.size());// //The accumulated color is then averaged by calling reduce() with the size of nextCenterPList.
 
@@ -0,0 +1,217 @@
+package renderer;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TileScheduler is a helper class for multi-threading in the renderer and for
+ * following up its progress.<br/>
+ * The image is divided into square tiles, which are handed out to the threads
+ * from an atomic counter without locks. The tiles are handed out in Morton
+ * (Z-curve) order, so tiles rendered at the same time are near each other in
+ * the image and share the geometries they hit in the caches. The progress is
+ * counted with a striped counter, so finishing a tile doesn't contend either
+ * @author Michal and Tamar
+ */
+class TileScheduler {
+    /** Default length of a tile's side in pixels */
+    static final int TILE_SIZE = 16;
+    /** Printing format */
+    private static final String PRINT_FORMAT = "%5.1f%%%n";
+
+    /**
+     * A rectangle of pixels rendered by one thread
+     * @param x0 first column of the tile
+     * @param y0 first row of the tile
+     * @param x1 column after the last column of the tile
+     * @param y1 row after the last row of the tile
+     */
+    record Tile(int x0, int y0, int x1, int y1) {
+        /**
+         * @return amount of pixels in the tile
+         */
+        int pixels() {
+            return (x1 - x0) * (y1 - y0);
+        }
+    }
+
+    /** Columns of pixels in the image */
+    private final int nX;
+    /** Rows of pixels in the image */
+    private final int nY;
+    /** Length of a tile's side in pixels */
+    private final int tileSize;
+    /** Amount of tiles in a row of tiles */
+    private final int tilesX;
+    /** Amount of tiles in a column of tiles */
+    private final int tilesY;
+    /** Indices of the tiles (row by row) in the order they are handed out */
+    private final int[] order;
+    /** Total amount of pixels in the generated image */
+    private final long totalPixels;
+
+    /** Position of the next tile to hand out in the order */
+    private final AtomicInteger next = new AtomicInteger();
+    /** Amount of tiles that haven't been finished yet */
+    private final AtomicInteger remaining;
+    /** Amount of pixels that have been processed */
+    private final LongAdder pixels = new LongAdder();
+    /** Released when all the tiles are done, or when rendering failed */
+    private final CountDownLatch finished = new CountDownLatch(1);
+    /** The first failure of rendering a tile, null if there is none */
+    private volatile Throwable failure = null;
+
+    /**
+     * ctor with the default tile size
+     * @param nX columns of pixels in the image
+     * @param nY rows of pixels in the image
+     */
+    TileScheduler(int nX, int nY) {
+        this(nX, nY, TILE_SIZE);
+    }
+
+    /**
+     * ctor
+     * @param nX       columns of pixels in the image
+     * @param nY       rows of pixels in the image
+     * @param tileSize length of a tile's side in pixels
+     */
+    TileScheduler(int nX, int nY, int tileSize) {
+        if (nX <= 0 || nY <= 0 || tileSize <= 0)
+            throw new IllegalArgumentException("The image and the tiles must have pixels");
+        this.nX = nX;
+        this.nY = nY;
+        this.tileSize = tileSize;
+        this.totalPixels = (long) nX * nY;
+        tilesX = (nX + tileSize - 1) / tileSize;
+        tilesY = (nY + tileSize - 1) / tileSize;
+
+        // sort the tiles by their Morton codes, kept in the high half of a key
+        // with the tile's index in the low half
+        long[] keys = new long[tilesX * tilesY];
+        for (int index = 0; index < keys.length; ++index)
+            keys[index] = (long) morton(index % tilesX, index / tilesX) << 32 | index;
+        Arrays.sort(keys);
+        order = new int[keys.length];
+        for (int i = 0; i < keys.length; ++i)
+            order[i] = (int) keys[i];
+        remaining = new AtomicInteger(order.length);
+    }
+
+    /**
+     * Interleaves the bits of a tile's column and row
+     * @param x column of the tile
+     * @param y row of the tile
+     * @return the Morton code of the tile
+     */
+    private static int morton(int x, int y) {
+        return spread(x) | spread(y) << 1;
+    }
+
+    /**
+     * Spreads the low 16 bits of a number to the even bits
+     * @param n the number
+     * @return the number with a zero bit after each of its bits
+     */
+    private static int spread(int n) {
+        n &= 0xFFFF;
+        n = (n | n << 8) & 0x00FF00FF;
+        n = (n | n << 4) & 0x0F0F0F0F;
+        n = (n | n << 2) & 0x33333333;
+        return (n | n << 1) & 0x55555555;
+    }
+
+    /**
+     * @return amount of tiles in a row of tiles
+     */
+    int getTilesX() {
+        return tilesX;
+    }
+
+    /**
+     * @return amount of tiles in a column of tiles
+     */
+    int getTilesY() {
+        return tilesY;
+    }
+
+    /**
+     * Finds a tile by its place among the tiles - for renderers that choose the
+     * tiles themselves instead of taking the next one
+     * @param tileX column of the tile among the tiles
+     * @param tileY row of the tile among the tiles
+     * @return the tile
+     */
+    Tile getTile(int tileX, int tileY) {
+        int x0 = tileX * tileSize, y0 = tileY * tileSize;
+        return new Tile(x0, y0, Math.min(x0 + tileSize, nX), Math.min(y0 + tileSize, nY));
+    }
+
+    /**
+     * Whether rendering failed - the renderers should stop
+     * @return true if a tile failed
+     */
+    boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Provides the next tile to render - this function is safe to call from
+     * all the threads at once
+     * @return the next tile, null if there are no more tiles
+     */
+    Tile nextTile() {
+        int position = next.getAndIncrement();
+        if (position >= order.length || failure != null)
+            return null;
+        return getTile(order[position] % tilesX, order[position] / tilesX);
+    }
+
+    /**
+     * Finish tile processing
+     * @param tile the rendered tile
+     */
+    void tileDone(Tile tile) {
+        pixels.add(tile.pixels());
+        if (remaining.decrementAndGet() == 0)
+            finished.countDown();
+    }
+
+    /**
+     * Stops the rendering after a thread failed to render a tile - no more tiles
+     * are handed out, and the waiting thread is released
+     * @param cause the failure
+     */
+    void fail(Throwable cause) {
+        if (failure == null)
+            failure = cause;
+        finished.countDown();
+    }
+
+    /**
+     * Wait for all tiles to be done and print the progress percentage - must be
+     * run from the main thread
+     * @param interval print time interval in seconds, 0 if printing is not required
+     * @throws IllegalStateException if rendering a tile failed
+     */
+    void waitToFinish(double interval) {
+        long printInterval = (long) (interval * 1000);
+        try {
+            if (printInterval == 0)
+                finished.await();
+            else
+                while (!finished.await(printInterval, TimeUnit.MILLISECONDS))
+                    System.out.printf(PRINT_FORMAT, 100d * pixels.sum() / totalPixels);
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (failure != null)
+            throw new IllegalStateException("Rendering failed", failure);
+        if (printInterval != 0)
+            System.out.printf(PRINT_FORMAT, 100d);
+    }
+}
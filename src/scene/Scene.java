@@ -1,4 +1,5 @@
 package scene;
+import geometries.BVHBuilder;
 import geometries.Geometries;
 import lighting.AmbientLight;
 import primitives.Color;
@@ -13,6 +14,20 @@ import java.util.List;
  */
 public class Scene {
 
+    /**
+     * Acceleration structures the geometries of the scene can be arranged in before rendering.
+     */
+    public enum Acceleration {
+        /** the geometries are kept as they were added (or arranged by hand) */
+        NONE,
+        /** bounding volume hierarchy built for the best rendering speed */
+        BVH,
+        /** bounding volume hierarchy built as fast as possible */
+        BVH_FAST,
+        /** uniform grid - for dense, evenly distributed geometries */
+        GRID
+    }
+
     /**
      * The name of the scene.
      */
@@ -38,6 +53,18 @@ public class Scene {
      */
     public List<LightSource> lights = new LinkedList<>();
 
+    /**
+     * The acceleration structure of the geometries.
+     */
+    public Acceleration acceleration = Acceleration.NONE;
+
+    /** the acceleration structure that was built last, null if none was built */
+    private Acceleration builtAcceleration = null;
+    /** the geometries that the last structure was built for */
+    private Geometries builtGeometries = null;
+    /** the modifications of the geometries when the last structure was built */
+    private int builtModifications = 0;
+
     /**
      * Constructs a new Scene object with the given name.
      * @param name The name of the scene.
@@ -85,4 +112,38 @@ public class Scene {
         this.lights = lights;
         return this;
     }
-}
\ No newline at end of file
+
+    /**
+     * Sets the acceleration structure of the geometries, built before rendering.
+     * @param acceleration The acceleration structure.
+     * @return The updated Scene object.
+     */
+    public Scene setAcceleration(Acceleration acceleration) {
+        this.acceleration = acceleration;
+        return this;
+    }
+
+    /**
+     * Arranges the geometries in the selected acceleration structure, unless it
+     * was already built for them. Called by the camera before rendering, so the
+     * structure is built by the first render and rebuilt only after geometries
+     * were added or the structure was changed - cameras that render the scene at
+     * the same time share the structure, and don't replace it under each other.
+     * @return The updated Scene object.
+     */
+    public synchronized Scene buildAcceleration() {
+        if (acceleration == builtAcceleration && geometries == builtGeometries
+                && geometries.getModifications() == builtModifications)
+            return this;
+        switch (acceleration) {
+            case BVH -> geometries.buildBVH(BVHBuilder.Mode.QUALITY);
+            case BVH_FAST -> geometries.buildBVH(BVHBuilder.Mode.FAST);
+            case GRID -> geometries.buildGrid();
+            case NONE -> { }
+        }
+        builtAcceleration = acceleration;
+        builtGeometries = geometries;
+        builtModifications = geometries.getModifications();
+        return this;
+    }
+}
@@ -0,0 +1,83 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.BoundingBox class
+ *
+ * @author Michal Shlomo and Tamar Israeli
+ */
+class BoundingBoxTest {
+    /**
+     * Test method for {@link geometries.BoundingBox#intersects(primitives.Ray)}.
+     */
+    @Test
+    void testIntersects() {
+        BoundingBox box = new BoundingBox(new Point(0, 0, 0), new Point(1, 1, 1));
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the box
+        assertTrue(box.intersects(new Ray(new Point(-1, 0.5, 0.5), new Vector(1, 0.1, 0.1))), "Ray crosses the box");
+        // TC02: Ray's line misses the box
+        assertFalse(box.intersects(new Ray(new Point(-1, 0.5, 0.5), new Vector(1, 2, 0))), "Ray misses the box");
+        // TC03: Ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point(0.5, 0.5, 0.5), new Vector(1, 1, 1))), "Ray starts inside the box");
+        // TC04: Ray starts after the box
+        assertFalse(box.intersects(new Ray(new Point(2, 0.5, 0.5), new Vector(1, 0, 0))), "Box is behind the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray is parallel to an axis and crosses the box
+        assertTrue(box.intersects(new Ray(new Point(0.5, 0.5, 5), new Vector(0, 0, -1))), "Axis parallel ray crosses the box");
+        // TC12: Ray is parallel to an axis and passes next to the box
+        assertFalse(box.intersects(new Ray(new Point(1.5, 0.5, 5), new Vector(0, 0, -1))), "Axis parallel ray misses the box");
+        // TC13: Ray crosses a flat box
+        BoundingBox flat = new BoundingBox(new Point(0, 0, 0), new Point(1, 1, 0));
+        assertTrue(flat.intersects(new Ray(new Point(0.5, 0.5, 5), new Vector(0.01, 0, -1))), "Ray crosses a flat box");
+    }
+
+    /**
+     * Test method for {@link geometries.BoundingBox#union(geometries.BoundingBox)}.
+     */
+    @Test
+    void testUnion() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The united box surrounds both boxes
+        BoundingBox result = new BoundingBox(new Point(0, 0, 0), new Point(1, 1, 1))
+                .union(new BoundingBox(new Point(-1, 0.5, 0.5), new Point(0.5, 2, 0.7)));
+        assertEquals(new Point(-1, 0, 0), result.getMin(), "Wrong minimal corner");
+        assertEquals(new Point(1, 2, 1), result.getMax(), "Wrong maximal corner");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Sphere's box
+        BoundingBox result = new Sphere(2, new Point(1, 1, 1)).getBoundingBox();
+        assertEquals(new Point(-1, -1, -1), result.getMin(), "Wrong sphere box");
+        assertEquals(new Point(3, 3, 3), result.getMax(), "Wrong sphere box");
+        // TC02: Triangle's box
+        result = new Triangle(new Point(0, 0, 1), new Point(2, 0, 0), new Point(0, 3, 0)).getBoundingBox();
+        assertEquals(new Point(0, 0, 0), result.getMin(), "Wrong triangle box");
+        assertEquals(new Point(2, 3, 1), result.getMax(), "Wrong triangle box");
+        // TC03: Cylinder's box
+        result = new Cylinder(5, 1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))).getBoundingBox();
+        assertEquals(new Point(-1, -1, 0), result.getMin(), "Wrong cylinder box");
+        assertEquals(new Point(1, 1, 5), result.getMax(), "Wrong cylinder box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Plane and tube are unbounded
+        assertNull(new Plane(new Vector(0, 0, 1), new Point(0, 0, 0)).getBoundingBox(), "Plane must be unbounded");
+        assertNull(new Tube(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 1).getBoundingBox(),
+                "Tube must be unbounded");
+        // TC12: A collection with an unbounded geometry is unbounded
+        assertNull(new Geometries(new Sphere(1, new Point(0, 0, 0)), new Plane(new Vector(0, 0, 1), new Point(0, 0, 0)))
+                .getBoundingBox(), "Geometries with a plane must be unbounded");
+    }
+}
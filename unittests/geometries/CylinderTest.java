@@ -1,10 +1,14 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -41,8 +45,7 @@ class CylinderTest {
         // ensure |result2| = 1
         assertEquals(1, result2.length(), DELTA, "Cylinder's normal is not a unit vector");
         // ensure the result is right
-        assertTrue(result2.equals(new Vector(0, 1, 0)) || result2.equals(new Vector(0, -1, 0)),
-                "getNormal() wrong result");
+        assertEquals(new Vector(0, -1, 0), result2, "getNormal() wrong result on the lower base");
         // TC03: test getting normal of a point on the other base of the cylinder
         // ensure there are no exceptions
         assertDoesNotThrow(() -> cyl.getNormal(new Point(4, 7, 1)), "getNormal() throws an unexpected exception");
@@ -51,8 +54,7 @@ class CylinderTest {
         // ensure |result3| = 1
         assertEquals(1, result3.length(), DELTA, "Cylinder's normal is not a unit vector");
         // ensure the result is right
-        assertTrue(result3.equals(new Vector(0, 1, 0)) || result3.equals(new Vector(0, -1, 0)),
-                "getNormal() wrong result");
+        assertEquals(new Vector(0, 1, 0), result3, "getNormal() wrong result on the upper base");
 
         // =============== Boundary Values Tests ==================
         // TC11: the given point in the center of one of the bases of the cylinder
@@ -63,8 +65,7 @@ class CylinderTest {
         // ensure |result4| = 1
         assertEquals(1, result4.length(), DELTA, "Cylinder's normal is not a unit vector");
         // ensure the result is right
-        assertTrue(result4.equals(new Vector(0, 1, 0)) || result4.equals(new Vector(0, -1, 0)),
-                "getNormal() wrong result");
+        assertEquals(new Vector(0, 1, 0), result4, "getNormal() wrong result on the upper base's center");
         // TC12: the given point in the center of the other base of the cylinder
         // ensure there are no exceptions
         assertDoesNotThrow(() -> cyl.getNormal(new Point(1, 2, 1)), "getNormal() throws an unexpected exception");
@@ -73,7 +74,77 @@ class CylinderTest {
         // ensure |result5| = 1
         assertEquals(1, result5.length(), DELTA, "Cylinder's normal is not a unit vector");
         // ensure the result is right
-        assertTrue(result5.equals(new Vector(0, 1, 0)) || result5.equals(new Vector(0, -1, 0)),
-                "getNormal() wrong result");
+        assertEquals(new Vector(0, -1, 0), result5, "getNormal() wrong result on the lower base's center");
+        // TC13: a point of a hit on a base, off the base's plane by a rounding error
+        assertEquals(new Vector(0, -1, 0), cyl.getNormal(new Point(3, 2 + 1e-9, 1)),
+                "getNormal() wrong result near the lower base");
+        assertEquals(new Vector(0, 1, 0), cyl.getNormal(new Point(3, 7 - 1e-9, 1)),
+                "getNormal() wrong result near the upper base");
+        // TC14: a point of a hit on the side, close to a base
+        assertEquals(new Vector(1, 0, 0), cyl.getNormal(new Point(5 + 1e-9, 2.5, 1)),
+                "getNormal() wrong result on the side near a base");
+    }
+
+    /**
+     * Test method for {@link geometries.Cylinder#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Cylinder cyl = new Cylinder(2, 1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)));
+        Vector x = new Vector(1, 0, 0);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray crosses the side twice (2 points)
+        assertEquals(List.of(new Point(-1, 0, 1), new Point(1, 0, 1)),
+                cyl.findIntersections(new Ray(new Point(-2, 0, 1), x)), "Ray crosses the side");
+        // TC02: The ray crosses both bases (2 points)
+        assertEquals(List.of(new Point(0.5, 0, 0), new Point(0.5, 0, 2)),
+                cyl.findIntersections(new Ray(new Point(0.5, 0, -1), new Vector(0, 0, 1))), "Ray crosses the bases");
+        // TC03: The ray enters through a base and exits through the side (2 points)
+        assertEquals(List.of(new Point(0.5, 0, 2), new Point(1, 0, 1.5)),
+                cyl.findIntersections(new Ray(new Point(0, 0, 2.5), new Vector(1, 0, -1))),
+                "Ray crosses a base and the side");
+        // TC04: The ray crosses the infinite tube above the cylinder (0 points)
+        assertNull(cyl.findIntersections(new Ray(new Point(-2, 0, 3), x)), "Ray above the cylinder");
+        // TC05: The ray starts inside the cylinder (1 point)
+        assertEquals(List.of(new Point(1, 0, 1)), cyl.findIntersections(new Ray(new Point(0, 0, 1), x)),
+                "Ray starts inside the cylinder");
+        // TC06: The ray starts after the cylinder (0 points)
+        assertNull(cyl.findIntersections(new Ray(new Point(2, 0, 1), x)), "Ray starts after the cylinder");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The ray is tangent to the side (0 points)
+        assertNull(cyl.findIntersections(new Ray(new Point(-2, 1, 1), x)), "Ray tangent to the side");
+        // TC12: The ray runs on the side, parallel to the axis (0 points)
+        assertNull(cyl.findIntersections(new Ray(new Point(1, 0, -1), new Vector(0, 0, 1))), "Ray on the side");
+        // TC13: The ray runs on the plane of a base (0 points)
+        assertNull(cyl.findIntersections(new Ray(new Point(-2, 0, 2), x)), "Ray on a base's plane");
+        // TC14: The ray runs along the axis (2 points)
+        assertEquals(List.of(new Point(0, 0, 0), new Point(0, 0, 2)),
+                cyl.findIntersections(new Ray(new Point(0, 0, -1), new Vector(0, 0, 1))), "Ray along the axis");
+    }
+
+    /**
+     * Test method for {@link geometries.Cylinder#findClosestGeoIntersection(primitives.Ray)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Cylinder cyl = new Cylinder(2, 1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)));
+        cyl.setMaterial(new Material().setkT(0.5));
+        Ray ray = new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The entry is the closest intersection
+        assertEquals(new Point(-1, 0, 1), cyl.findClosestGeoIntersection(ray).point, "Wrong closest point");
+        // TC02: The ray starts inside - the exit is the closest intersection
+        assertEquals(new Point(1, 0, 1), cyl.findClosestGeoIntersection(new Ray(new Point(0, 0, 1),
+                new Vector(1, 0, 0))).point, "Wrong closest point from inside");
+        // TC03: The light passes the cylinder twice, or once if it is inside the cylinder
+        assertEquals(new Double3(0.25), cyl.findTransmittance(ray, 5, 0.001), "Wrong transmittance");
+        assertEquals(new Double3(0.5), cyl.findTransmittance(ray, 2, 0.001), "Wrong transmittance");
+        // TC04: The cylinder is culled by its box in a hierarchy - the infinite tube above it isn't hit
+        Geometries geometries = new Geometries(cyl, new Sphere(1, new Point(10, 10, 10))).buildBVH();
+        assertNull(geometries.findClosestGeoIntersection(new Ray(new Point(-2, 0, 3), new Vector(1, 0, 0))),
+                "Ray above the cylinder");
     }
-}
\ No newline at end of file
+}
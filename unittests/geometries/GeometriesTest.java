@@ -1,6 +1,8 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -49,4 +51,253 @@ class GeometriesTest {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * {@link geometries.Geometries#buildBVH(BVHBuilder.Mode)}
+     */
+    @Test
+    void testBuildBVH() {
+        for (BVHBuilder.Mode mode : BVHBuilder.Mode.values()) {
+            Geometries linear = new Geometries();
+            Geometries bvh = new Geometries();
+            for (int i = 0; i < 10; ++i)
+                for (int j = 0; j < 10; ++j) {
+                    Sphere sphere = new Sphere(0.4, new Point(i, j, 0));
+                    Triangle triangle = new Triangle(new Point(i, j, 2), new Point(i + 0.8, j, 2), new Point(i, j + 0.8, 2));
+                    linear.add(sphere, triangle);
+                    bvh.add(sphere, triangle);
+                }
+            Plane plane = new Plane(new Vector(0, 0, 1), new Point(0, 0, -5));
+            linear.add(plane);
+            bvh.add(plane);
+            bvh.buildBVH(mode);
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The hierarchy finds the same intersections as the plain list
+            for (int i = 0; i < 10; ++i)
+                for (int j = 0; j < 10; ++j) {
+                    Ray ray = new Ray(new Point(i * 1.1 - 0.5, j * 0.9 + 0.3, 10), new Vector(0.05 * i - 0.2, 0.1, -1));
+                    List<Point> expected = linear.findIntersections(ray);
+                    List<Point> result = bvh.findIntersections(ray);
+                    assertEquals(expected.size(), result.size(), mode + " BVH found a wrong number of intersections");
+                    assertEquals(ray.findClosestPoint(expected), ray.findClosestPoint(result),
+                            mode + " BVH found a wrong closest intersection");
+                }
+
+            // TC02: The statistics describe the built tree
+            BVHBuilder.Statistics statistics = bvh.getBVHStatistics();
+            assertNotNull(statistics, mode + " BVH statistics are missing");
+            assertTrue(statistics.leaves() >= 200 / 4, mode + " BVH leaves are too big");
+            assertEquals(2 * statistics.leaves() - 1, statistics.nodes(), mode + " BVH must be a binary tree");
+            assertTrue(statistics.depth() > 1 && statistics.depth() < 200, mode + " BVH has a wrong depth");
+            assertTrue(statistics.sahCost() > 0, mode + " BVH has a wrong SAH cost");
+
+            // =============== Boundary Values Tests ==================
+            // TC11: A ray that misses all the bounded geometries hits only the unbounded plane
+            List<Point> result = bvh.findIntersections(new Ray(new Point(-10, -10, 10), new Vector(0, 0, -1)));
+            assertEquals(List.of(new Point(-10, -10, -5)), result, mode + " BVH lost the unbounded plane");
+        }
+    }
+
+    /**
+     * {@link geometries.Geometries#buildGrid()}
+     */
+    @Test
+    void testBuildGrid() {
+        Geometries linear = new Geometries();
+        Geometries grid = new Geometries();
+        for (int i = 0; i < 20; ++i)
+            for (int j = 0; j < 20; ++j) {
+                Triangle triangle = new Triangle(new Point(i, j, (i + j) % 3), new Point(i + 1.5, j, 0),
+                        new Point(i, j + 1.5, 1));
+                linear.add(triangle);
+                grid.add(triangle);
+            }
+        Sphere big = new Sphere(4, new Point(10, 10, 0));
+        Plane plane = new Plane(new Vector(0, 0, 1), new Point(0, 0, -5));
+        linear.add(big, plane);
+        grid.add(big, plane);
+        grid.buildGrid();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The grid finds the same intersections as the plain list
+        for (int i = 0; i < 20; ++i)
+            for (int j = 0; j < 20; ++j) {
+                Ray ray = new Ray(new Point(i * 1.3 - 3, j * 0.7 + 2, 10), new Vector(0.1 * i - 1, 0.05 * j, -1));
+                List<Point> expected = linear.findIntersections(ray);
+                List<Point> result = grid.findIntersections(ray);
+                assertEquals(expected.size(), result.size(), "Grid found a wrong number of intersections");
+                assertEquals(ray.findClosestPoint(expected), ray.findClosestPoint(result),
+                        "Grid found a wrong closest intersection");
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray parallel to the grid's axes, starting inside the grid
+        Ray ray = new Ray(new Point(0.2, 0.2, 0.5), new Vector(1, 0, 0));
+        assertEquals(linear.findIntersections(ray).size(), grid.findIntersections(ray).size(),
+                "Grid failed on an axis parallel ray");
+        // TC12: A ray that misses all the bounded geometries hits only the unbounded plane
+        List<Point> result = grid.findIntersections(new Ray(new Point(-10, -10, 10), new Vector(0, 0, -1)));
+        assertEquals(List.of(new Point(-10, -10, -5)), result, "Grid lost the unbounded plane");
+    }
+
+    /**
+     * {@link geometries.Geometries#findClosestGeoIntersection(Ray, double)}
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Geometries linear = new Geometries();
+        Geometries bvh = new Geometries();
+        Geometries grid = new Geometries();
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j) {
+                Sphere sphere = new Sphere(0.4, new Point(i, j, (i * j) % 4));
+                Triangle triangle = new Triangle(new Point(i, j, 2), new Point(i + 0.8, j, 2), new Point(i, j + 0.8, 3));
+                linear.add(sphere, triangle);
+                bvh.add(sphere, triangle);
+                grid.add(sphere, triangle);
+            }
+        Plane plane = new Plane(new Vector(0, 0, 1), new Point(0, 0, -5));
+        linear.add(plane);
+        bvh.add(plane);
+        grid.add(plane);
+        bvh.buildBVH();
+        grid.buildGrid();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest intersection is the closest of all the intersections,
+        // with and without an acceleration structure, from above and from the side
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                for (Ray ray : List.of(
+                        new Ray(new Point(i * 1.1 - 0.4913, j * 0.9 + 0.3071, 10), new Vector(0.05 * i - 0.2, 0.1, -1)),
+                        new Ray(new Point(-5, j * 0.9 + 0.0137, i * 0.4 + 0.0093), new Vector(1, 0.03 * i, -0.02 * j - 0.01)))) {
+                    Point expected = ray.findClosestPoint(linear.findIntersections(ray));
+                    assertEquals(expected, linear.findClosestGeoIntersection(ray).point,
+                            "Wrong closest intersection of the plain list");
+                    assertEquals(expected, bvh.findClosestGeoIntersection(ray).point,
+                            "Wrong closest intersection of the BVH");
+                    assertEquals(expected, grid.findClosestGeoIntersection(ray).point,
+                            "Wrong closest intersection of the grid");
+                }
+
+        // TC02: An intersection farther than the maximal distance is ignored
+        Ray ray = new Ray(new Point(0.2, 0.2, 10), new Vector(0, 0, -1));
+        assertEquals(new Point(0.2, 0.2, 2.25), bvh.findClosestGeoIntersection(ray, 9).point,
+                "Wrong closest intersection up to a distance");
+        assertNull(bvh.findClosestGeoIntersection(ray, 7.5), "Intersection farther than the maximal distance");
+        assertNull(grid.findClosestGeoIntersection(ray, 7.5), "Intersection farther than the maximal distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Empty collection
+        assertNull(new Geometries().findClosestGeoIntersection(ray), "Empty collection has no intersection");
+        // TC12: A ray that misses all the bounded geometries hits only the unbounded plane
+        assertEquals(new Point(-10, -10, -5),
+                bvh.findClosestGeoIntersection(new Ray(new Point(-10, -10, 10), new Vector(0, 0, -1))).point,
+                "Closest intersection lost the unbounded plane");
+    }
+
+    /**
+     * {@link geometries.Geometries#findTransmittance(Ray, double, double)}
+     */
+    @Test
+    void testFindTransmittance() {
+        Geometries linear = new Geometries();
+        Geometries bvh = new Geometries();
+        Geometries grid = new Geometries();
+        for (int i = 0; i < 5; ++i) {
+            Geometry glass = new Sphere(0.5, new Point(i * 2, 0, 0)).setMaterial(new Material().setkT(0.5));
+            Geometry wall = new Triangle(new Point(i * 2, -1, 1), new Point(i * 2 + 1, 1, 1), new Point(i * 2 - 1, 1, 1));
+            linear.add(glass, wall);
+            bvh.add(glass, wall);
+            grid.add(glass, wall);
+        }
+        bvh.buildBVH();
+        grid.buildGrid();
+        Ray ray = new Ray(new Point(4, 0, -2), new Vector(0, 0, 1));
+
+        for (Geometries geometries : List.of(linear, bvh, grid)) {
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The light passes through both sides of the transparent sphere
+            assertEquals(new Double3(0.25), geometries.findTransmittance(ray, 2.5, 0.001),
+                    "Wrong transmittance through a transparent sphere");
+            // TC02: The opaque triangle blocks the light
+            assertEquals(Double3.ZERO, geometries.findTransmittance(ray, 5, 0.001),
+                    "Opaque triangle must block the light");
+            // TC03: Nothing is between the head and the light
+            assertEquals(Double3.ONE, geometries.findTransmittance(ray, 1, 0.001),
+                    "Geometries beyond the light must not shade");
+
+            // =============== Boundary Values Tests ==================
+            // TC11: Only the first side of the sphere is before the light
+            assertEquals(new Double3(0.5), geometries.findTransmittance(ray, 2, 0.001),
+                    "Wrong transmittance up to the middle of a sphere");
+        }
+    }
+
+    /**
+     * {@link geometries.Geometries#findClosestHit(Ray, Intersectable.Hit)}
+     */
+    @Test
+    void testFindClosestHit() {
+        Sphere sphere = new Sphere(1, new Point(0, 0, 0));
+        Triangle triangle = new Triangle(new Point(-2, -2, 3), new Point(2, -2, 3), new Point(0, 2, 3));
+        Geometries geometries = new Geometries(sphere, triangle);
+        Intersectable.Hit hit = new Intersectable.Hit();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The record keeps the distance and the geometry of the closest intersection
+        assertTrue(geometries.findClosestHit(new Ray(new Point(0, 0, 5), new Vector(0, 0, -1)),
+                hit.reset(Double.POSITIVE_INFINITY)), "Closest intersection wasn't found");
+        assertEquals(2, hit.t, 1e-10, "Wrong distance of the closest intersection");
+        assertSame(triangle, hit.geometry, "Wrong geometry of the closest intersection");
+        // TC02: The same record is reused for another ray
+        assertTrue(geometries.findClosestHit(new Ray(new Point(0, 0, -5), new Vector(0, 0, 1)),
+                hit.reset(Double.POSITIVE_INFINITY)), "Closest intersection wasn't found");
+        assertEquals(4, hit.t, 1e-10, "Wrong distance of the closest intersection");
+        assertSame(sphere, hit.geometry, "Wrong geometry of the closest intersection");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A closer intersection that was recorded before is kept
+        hit.reset(Double.POSITIVE_INFINITY).update(1, triangle);
+        assertFalse(geometries.findClosestHit(new Ray(new Point(0, 0, -5), new Vector(0, 0, 1)), hit),
+                "Farther intersection must not replace the recorded one");
+        assertSame(triangle, hit.geometry, "Recorded intersection was replaced");
+    }
+
+    /**
+     * {@link geometries.Geometries#findClosestGeoIntersections(List)}
+     */
+    @Test
+    void testFindClosestGeoIntersections() {
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                geometries.add(new Sphere(0.3, new Point(i, j, (i + j) % 3)),
+                        new Triangle(new Point(i, j, 2), new Point(i + 0.8, j, 2), new Point(i, j + 0.8, 3)));
+        geometries.add(new Plane(new Vector(0, 0, 1), new Point(0, 0, -5)));
+        geometries.buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A beam of nearly parallel rays finds the same intersections as single rays
+        // TC02: Diverging rays find the same intersections as single rays
+        for (double spread : new double[]{0.0003, 1}) {
+            List<Ray> rays = new LinkedList<>();
+            for (int i = 0; i < 7; ++i)
+                for (int j = 0; j < 7; ++j)
+                    rays.add(new Ray(new Point(4.5, 4.5, 10), new Vector(spread * (i - 3), spread * (j - 3), -1)));
+            List<Intersectable.GeoPoint> result = geometries.findClosestGeoIntersections(rays);
+            assertEquals(rays.size(), result.size(), "Wrong amount of intersections");
+            for (int i = 0; i < rays.size(); ++i)
+                assertEquals(geometries.findClosestGeoIntersection(rays.get(i)), result.get(i),
+                        "Packet found a wrong closest intersection");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray without intersections in the packet
+        List<Intersectable.GeoPoint> result = geometries.findClosestGeoIntersections(List.of(
+                new Ray(new Point(4.5, 4.5, 10), new Vector(0, 0, -1)),
+                new Ray(new Point(4.5, 4.5, 10), new Vector(0, 0, 1))));
+        assertNotNull(result.get(0), "Packet lost an intersection");
+        assertNull(result.get(1), "Packet found an intersection of a ray that misses everything");
+    }
+}
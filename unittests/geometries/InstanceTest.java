@@ -0,0 +1,101 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static geometries.Intersectable.GeoPoint;
+
+/**
+ * Unit tests for geometries.Instance class
+ *
+ * @author Michal Shlomo and Tamar Israeli
+ */
+class InstanceTest {
+    /** the shared geometries - a unit sphere at the origin and a triangle below it */
+    private final Sphere sphere = new Sphere(1, new Point(0, 0, 0));
+    private final Geometries shared = new Geometries(sphere,
+            new Triangle(new Point(-1, -1, -2), new Point(1, -1, -2), new Point(0, 1, -2))).buildBVH();
+    /** the geometries scaled by 2 and moved to (10,0,0) */
+    private final Instance instance = new Instance(shared,
+            Transform.scaling(2, 2, 2).then(Transform.translation(new Vector(10, 0, 0))));
+
+    /**
+     * Test method for {@link geometries.Instance#findGeoIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray crosses the scaled sphere and triangle - the intersections and distances are in the scene
+        Ray ray = new Ray(new Point(10, 0, 5), new Vector(0, 0, -1));
+        List<GeoPoint> result = instance.findGeoIntersections(ray);
+        assertNotNull(result, "Ray crosses the instance");
+        assertEquals(3, result.size(), "Wrong number of points");
+        for (GeoPoint gp : result)
+            assertEquals(gp.point.distance(ray.getHead()), gp.t, 1e-10, "Wrong ray parameter");
+        assertTrue(result.stream().anyMatch(gp -> gp.point.equals(new Point(10, 0, 2))), "Missing the sphere's top");
+        assertTrue(result.stream().anyMatch(gp -> gp.point.equals(new Point(10, 0, -4))), "Missing the triangle");
+        // TC02: The ray passes where the original geometries are, but not the instance
+        assertNull(instance.findGeoIntersections(new Ray(new Point(0, 0, 5), new Vector(0, 0, -1))),
+                "Ray crosses the original geometries only");
+        // TC03: The geometry of an intersection is intersected alone - the scaled sphere only
+        GeoPoint top = result.stream().filter(gp -> gp.point.equals(new Point(10, 0, 2))).findFirst().orElseThrow();
+        List<GeoPoint> own = top.geometry.findGeoIntersections(ray);
+        assertEquals(2, own.size(), "Wrong number of points of the scaled sphere");
+        for (GeoPoint gp : own)
+            assertEquals(top.geometry, gp.geometry, "An intersection of another geometry");
+        assertEquals(new Point(10, 0, -2), own.get(1).point, "Wrong point of the scaled sphere");
+        assertEquals(7, own.get(1).t, 1e-10, "Wrong ray parameter of the scaled sphere");
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#findClosestGeoIntersection(primitives.Ray)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        sphere.setMaterial(new Material().setkT(0.5));
+        Instance rotated = new Instance(shared, Transform.rotation(new Vector(0, 1, 0), 90)
+                .then(Transform.translation(new Vector(0, 0, -10))));
+        Geometries scene = new Geometries(instance, rotated).buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest intersection is the scaled sphere's top, with the scaled sphere's normal
+        GeoPoint closest = scene.findClosestGeoIntersection(new Ray(new Point(11, 0, 5), new Vector(0, 0, -1)));
+        assertEquals(new Point(11, 0, Math.sqrt(3)), closest.point, "Wrong closest point");
+        assertEquals(new Vector(0.5, 0, Math.sqrt(3) / 2), closest.geometry.getNormal(closest.point),
+                "Wrong normal");
+        assertSame(sphere.getMaterial(), closest.geometry.getMaterial(), "The material isn't shared");
+        // TC02: The rotated copy - the sphere is moved to z = -10 and the triangle to x = -2
+        closest = scene.findClosestGeoIntersection(new Ray(new Point(-5, 0, -10), new Vector(1, 0, 0)));
+        assertEquals(new Point(-2, 0, -10), closest.point, "Wrong closest point in the rotated copy");
+        assertEquals(new Vector(1, 0, 0), closest.geometry.getNormal(closest.point).scale(-1),
+                "Wrong rotated normal");
+        // TC03: Both copies are within the maximal distance, the nearer one is found
+        closest = scene.findClosestGeoIntersection(new Ray(new Point(10, 0, -10), new Vector(-1, 0, 0)), 100);
+        assertEquals(new Point(1, 0, -10), closest.point, "Wrong closest point between the copies");
+        // TC04: The light passes the scaled sphere twice within the scaled distances
+        Ray ray = new Ray(new Point(10, 0, 5), new Vector(0, 0, -1));
+        assertEquals(new Double3(0.25), instance.findTransmittance(ray, 8, 0.001), "Wrong transmittance");
+        assertEquals(new Double3(0.5), instance.findTransmittance(ray, 5, 0.001), "Wrong transmittance");
+        assertEquals(Double3.ZERO, instance.findTransmittance(ray, 10, 0.001), "The triangle didn't block");
+        // TC05: An instance of an instance - the scaled sphere moved again, with its normal
+        Instance nested = new Instance(instance, Transform.translation(new Vector(0, 10, 0)));
+        closest = nested.findClosestGeoIntersection(new Ray(new Point(11, 10, 5), new Vector(0, 0, -1)));
+        assertEquals(new Point(11, 10, Math.sqrt(3)), closest.point, "Wrong closest point in the nested instance");
+        assertEquals(new Vector(0.5, 0, Math.sqrt(3) / 2), closest.geometry.getNormal(closest.point),
+                "Wrong normal in the nested instance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A geometry of the scene closer than an instance that was hit before it is not wrapped
+        Sphere near = new Sphere(0.5, new Point(10, 0, 4));
+        closest = new Geometries(instance, near).findClosestGeoIntersection(ray);
+        assertSame(near, closest.geometry, "The scene's geometry was wrapped");
+    }
+}
@@ -4,8 +4,11 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import geometries.Polygon;
 import primitives.Point;
+import primitives.Ray;
 import primitives.Vector;
 
 /**
@@ -91,4 +94,66 @@ public class PolygonTests {
                       "Polygon's normal is not orthogonal to one of the edges");
    }
 
+   /** Test method for {@link geometries.Polygon#findIntersections(primitives.Ray)}. */
+   @Test
+   public void testFindIntersections() {
+      // a quad on the plane x + y + z = 1 with a vertex out of the axis planes
+      Polygon tilted = new Polygon(new Point(1, 0, 0), new Point(0, 1, 0), new Point(-1, 1, 1), new Point(0, 0, 1));
+      // ============ Equivalence Partitions Tests ==============
+      // TC01: The ray crosses the polygon (1 point)
+      assertEquals(List.of(new Point(0, 0.5, 0.5)),
+                   tilted.findIntersections(new Ray(new Point(0, 0.5, -1), new Vector(0, 0, 1))),
+                   "Ray crosses the polygon");
+      // TC02: The ray crosses the plane outside the polygon against an edge (0 points)
+      assertNull(tilted.findIntersections(new Ray(new Point(1, 1, -5), new Vector(0, 0, 1))),
+                 "Ray crosses the plane outside the polygon");
+      // TC03: The ray crosses the plane outside the polygon against a vertex (0 points)
+      assertNull(tilted.findIntersections(new Ray(new Point(2, -0.5, -5), new Vector(0, 0, 1))),
+                 "Ray crosses the plane outside the polygon");
+      // TC04: The same squares on all the axis planes, in both vertex orders - the
+      // projection drops a different axis and keeps or flips the orientation
+      for (int axis = 0; axis < 3; ++axis)
+         for (boolean reversed : new boolean[] { false, true }) {
+            Point[] square = { square(axis, 0, 0), square(axis, 2, 0), square(axis, 2, 2), square(axis, 0, 2) };
+            if (reversed)
+               square = new Point[] { square[3], square[2], square[1], square[0] };
+            Polygon polygon = new Polygon(square);
+            Vector dir = square(axis, 0, 0).subtract(square(axis, 0, 0).add(polygon.getNormal(null)));
+            Point head = square(axis, 1.5, 0.5).add(polygon.getNormal(null));
+            assertEquals(List.of(square(axis, 1.5, 0.5)), polygon.findIntersections(new Ray(head, dir)),
+                         "Ray crosses the square, axis " + axis);
+            head = square(axis, 2.5, 0.5).add(polygon.getNormal(null));
+            assertNull(polygon.findIntersections(new Ray(head, dir)), "Ray outside the square, axis " + axis);
+         }
+      // TC05: A polygon of three vertices, which isn't a Triangle, keeps the projected edges
+      Polygon three = new Polygon(new Point(1, 0, 0), new Point(0, 1, 0), new Point(0, 0, 1));
+      assertEquals(List.of(new Point(0.25, 0.25, 0.5)),
+                   three.findIntersections(new Ray(new Point(0.25, 0.25, -1), new Vector(0, 0, 1))),
+                   "Ray crosses the polygon of three vertices");
+      assertNull(three.findIntersections(new Ray(new Point(1, 1, -1), new Vector(0, 0, 1))),
+                 "Ray outside the polygon of three vertices");
+
+      // =============== Boundary Values Tests ==================
+      // TC11: The ray crosses an edge (0 points)
+      assertNull(tilted.findIntersections(new Ray(new Point(0.5, 0.5, -1), new Vector(0, 0, 1))),
+                 "Ray crosses an edge");
+      // TC12: The ray crosses a vertex (0 points)
+      assertNull(tilted.findIntersections(new Ray(new Point(1, 0, -1), new Vector(0, 0, 1))),
+                 "Ray crosses a vertex");
+      // TC13: The ray crosses the continuation of an edge (0 points)
+      assertNull(tilted.findIntersections(new Ray(new Point(2, -1, -1), new Vector(0, 0, 1))),
+                 "Ray crosses the continuation of an edge");
+   }
+
+   /**
+    * A point on the plane of two axes, which lays at 1 on the third axis
+    * @param  axis the third axis (0 - x, 1 - y, 2 - z)
+    * @param  a    coordinate on the first of the other axes
+    * @param  b    coordinate on the second of the other axes
+    * @return      the point
+    */
+   private static Point square(int axis, double a, double b) {
+      return axis == 0 ? new Point(1, a, b) : axis == 1 ? new Point(a, 1, b) : new Point(a, b, 1);
+   }
+
 }
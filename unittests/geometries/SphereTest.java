@@ -127,4 +127,31 @@ class SphereTest {
         assertNull(sphere.findIntersections(new Ray(new Point(-1, 0, 0), new Vector(0, 1, 0))),
                 "Ray's line out of sphere");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Sphere#findGeoIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        Sphere sphere = new Sphere(1, new Point(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray starts before and crosses the sphere (2 points)
+        List<Intersectable.GeoPoint> result =
+                sphere.findGeoIntersections(new Ray(new Point(1, 0, 2), new Vector(0, 0, -1)));
+        assertEquals(2, result.size(), "Wrong number of points");
+        assertEquals(new Point(1, 0, 1), result.get(0).point, "Wrong first point");
+        assertEquals(new Point(1, 0, -1), result.get(1).point, "Wrong second point");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray starts at the center (1 point)
+        result = sphere.findGeoIntersections(new Ray(new Point(1, 0, 0), new Vector(0, 0, -1)));
+        assertEquals(1, result.size(), "Wrong number of points");
+        assertEquals(new Point(1, 0, -1), result.get(0).point, "Wrong point");
+        assertEquals(1, result.get(0).t, 1e-10, "Wrong ray parameter");
+        // TC12: The closest intersection of a ray that starts at the center
+        assertEquals(new Point(1, 0, -1),
+                sphere.findClosestGeoIntersection(new Ray(new Point(1, 0, 0), new Vector(0, 0, -1))).point,
+                "Wrong closest point");
+    }
+}
@@ -0,0 +1,124 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.TriangleBatch class
+ *
+ * @author Michal Shlomo and Tamar Israeli
+ */
+class TriangleBatchTest {
+    /** triangle on the plane z = 0 */
+    private final Triangle near = new Triangle(new Point(0, 0, 0), new Point(4, 0, 0), new Point(0, 4, 0));
+    /** triangle on the plane z = -2 */
+    private final Triangle far = new Triangle(new Point(0, 0, -2), new Point(4, 0, -2), new Point(0, 4, -2));
+    /** the batch, with a sphere between the triangles */
+    private final TriangleBatch batch = new TriangleBatch(new Intersectable[]{
+            far, new Sphere(1, new Point(10, 10, 10)), near});
+
+    /**
+     * Runs the batch on all the geometries
+     * @param ray the ray
+     * @return the closest intersection, its geometry is null if there is none
+     */
+    private Intersectable.Hit findClosestHit(Ray ray) {
+        Intersectable.Hit hit = new Intersectable.Hit().reset(Double.POSITIVE_INFINITY);
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        batch.findClosestHit(0, 3, head.getX(), head.getY(), head.getZ(), dir.getX(), dir.getY(), dir.getZ(), hit);
+        return hit;
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleBatch#findClosestHit}.
+     */
+    @Test
+    void testFindClosestHit() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray crosses both triangles - the nearer one is found, with its barycentric coordinates
+        Intersectable.Hit hit = findClosestHit(new Ray(new Point(1, 2, 3), new Vector(0, 0, -1)));
+        assertSame(near, hit.geometry, "Wrong closest triangle");
+        assertEquals(3, hit.t, 1e-10, "Wrong distance");
+        assertEquals(0.25, hit.u, 1e-10, "Wrong first barycentric coordinate");
+        assertEquals(0.5, hit.v, 1e-10, "Wrong second barycentric coordinate");
+        // TC02: The ray passes outside the triangles
+        assertNull(findClosestHit(new Ray(new Point(3, 3, 3), new Vector(0, 0, -1))).geometry,
+                "Ray outside the triangles");
+        // TC03: The triangles are behind the ray
+        assertNull(findClosestHit(new Ray(new Point(1, 1, 3), new Vector(0, 0, 1))).geometry,
+                "Triangles behind the ray");
+        // TC04: Only the non-triangle geometry is in the ray's way - it is not tested by the batch
+        assertTrue(batch.contains(0) && !batch.contains(1) && batch.contains(2), "Wrong triangles in the batch");
+        assertNull(findClosestHit(new Ray(new Point(10, 10, 20), new Vector(0, 0, -1))).geometry,
+                "The batch tested the sphere");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The ray crosses an edge
+        assertNull(findClosestHit(new Ray(new Point(2, 2, 3), new Vector(0, 0, -1))).geometry,
+                "Ray on an edge");
+        // TC12: The ray crosses a vertex
+        assertNull(findClosestHit(new Ray(new Point(0, 0, 3), new Vector(0, 0, -1))).geometry,
+                "Ray on a vertex");
+        // TC13: The ray is parallel to the triangles
+        assertNull(findClosestHit(new Ray(new Point(-1, 1, 0), new Vector(1, 0, 0))).geometry,
+                "Ray parallel to the triangles");
+        // TC14: A tiny triangle, whose determinant is below the absolute zero tolerance, is still hit
+        Triangle tiny = new Triangle(new Point(0, 0, 1), new Point(1e-7, 0, 1), new Point(0, 1e-7, 1));
+        hit.reset(Double.POSITIVE_INFINITY);
+        assertTrue(new TriangleBatch(new Intersectable[]{tiny}).findClosestHit(0, 1, 2.5e-8, 5e-8, 0, 0, 0, 1, hit),
+                "Ray crosses a tiny triangle");
+        assertSame(tiny, hit.geometry, "Wrong tiny triangle");
+        assertEquals(1, hit.t, 1e-10, "Wrong distance to a tiny triangle");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleBatchVector#findClosestHit}.
+     */
+    @Test
+    void testFindClosestHitVector() {
+        // many small triangles around the origin, with other geometries among them
+        Random random = new Random(17);
+        Intersectable[] geometries = new Intersectable[37];
+        Point[] corners = new Point[geometries.length];
+        for (int i = 0; i < geometries.length; ++i) {
+            Point p0 = corners[i] = new Point(random.nextDouble() * 4 - 2, random.nextDouble() * 4 - 2, random.nextDouble() * 4 - 2);
+            geometries[i] = i % 5 == 3 ? new Sphere(0.5, p0)
+                    : new Triangle(p0, p0.add(new Vector(random.nextDouble() + 0.1, random.nextDouble(), 0.3)),
+                    p0.add(new Vector(random.nextDouble(), random.nextDouble() + 0.1, -0.4)));
+        }
+        TriangleBatch triangles = new TriangleBatch(geometries);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The lanes find exactly the hits of the scalar loop, for ranges of any length
+        if (!TriangleBatch.VECTORIZED) return; // the Vector API module isn't in the boot layer
+        int hits = 0;
+        for (int r = 0; r < 2000; ++r) {
+            // a ray aimed near a corner of one of the geometries
+            Point head = new Point(random.nextDouble() * 6 - 3, random.nextDouble() * 6 - 3, 5);
+            Point target = corners[random.nextInt(corners.length)].add(
+                    new Vector(random.nextDouble() * 0.6, random.nextDouble() * 0.6, 0.01));
+            Ray ray = new Ray(head, target.subtract(head));
+            int from = random.nextInt(geometries.length), to = from + random.nextInt(geometries.length - from + 1);
+            Vector dir = ray.getDirection();
+            Intersectable.Hit scalar = new Intersectable.Hit().reset(Double.POSITIVE_INFINITY);
+            Intersectable.Hit lanes = new Intersectable.Hit().reset(Double.POSITIVE_INFINITY);
+            assertEquals(triangles.findClosestHitScalar(from, to, head.getX(), head.getY(), head.getZ(),
+                            dir.getX(), dir.getY(), dir.getZ(), scalar),
+                    TriangleBatchVector.findClosestHit(triangles, from, to, head.getX(), head.getY(), head.getZ(),
+                            dir.getX(), dir.getY(), dir.getZ(), lanes), "Different result");
+            assertSame(scalar.geometry, lanes.geometry, "Different triangle");
+            assertEquals(scalar.t, lanes.t, 0, "Different distance");
+            assertEquals(scalar.u, lanes.u, 0, "Different first barycentric coordinate");
+            assertEquals(scalar.v, lanes.v, 0, "Different second barycentric coordinate");
+            if (lanes.geometry != null) ++hits;
+        }
+        assertTrue(hits > 100, "Too few rays hit the triangles");
+    }
+}
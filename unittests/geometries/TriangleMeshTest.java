@@ -0,0 +1,163 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static geometries.Intersectable.GeoPoint;
+
+/**
+ * Unit tests for geometries.TriangleMesh class
+ *
+ * @author Michal Shlomo and Tamar Israeli
+ */
+class TriangleMeshTest {
+    /** square [0,2]x[0,2] on the plane z = 0, and its copy on the plane z = -1 - 4 faces */
+    private final double[] vertices = {
+            0, 0, 0, 2, 0, 0, 2, 2, 0, 0, 2, 0,
+            0, 0, -1, 2, 0, -1, 2, 2, -1, 0, 2, -1};
+    /** the faces - counterclockwise around the z axis */
+    private final int[] faces = {0, 1, 2, 0, 2, 3, 4, 5, 6, 4, 6, 7};
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Correct mesh
+        assertEquals(4, new TriangleMesh(vertices, faces).getFaceCount(), "Wrong amount of faces");
+        // TC02: A face refers to a missing vertex
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[]{0, 1, 8}),
+                "Constructed a mesh with a missing vertex");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No faces
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[0]),
+                "Constructed a mesh without faces");
+        // TC12: Incomplete face
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[]{0, 1}),
+                "Constructed a mesh with an incomplete face");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#getNormal(primitives.Point)}.
+     */
+    @Test
+    void testGetNormal() {
+        // the upper square is tilted onto the plane z = x, to tell its normal from the lower one's
+        double[] tilted = vertices.clone();
+        tilted[5] = tilted[8] = 2;
+        TriangleMesh mesh = new TriangleMesh(tilted, faces);
+        double half = Math.sqrt(0.5);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A point on the tilted square
+        assertEquals(new Vector(-half, 0, half), mesh.getNormal(new Point(1, 0.5, 1)), "Wrong normal");
+        // TC02: A point on the lower square
+        assertEquals(new Vector(0, 0, 1), mesh.getNormal(new Point(1, 0.5, -1)), "Wrong normal");
+        // TC03: A point off the mesh
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point(3, 1, 0)),
+                "Found a normal off the mesh");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A point on the diagonal shared by two faces of the same square
+        assertEquals(new Vector(0, 0, 1), mesh.getNormal(new Point(1, 1, -1)), "Wrong normal on an edge");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findGeoIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        TriangleMesh mesh = new TriangleMesh(vertices, faces);
+        mesh.setEmission(new Color(10, 20, 30)).setMaterial(new Material().setkT(0.5));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray crosses both squares - the faces share the mesh's material and emission
+        List<GeoPoint> result = mesh.findGeoIntersections(new Ray(new Point(1.5, 0.5, 1), new Vector(0, 0, -1)));
+        assertNotNull(result, "Ray crosses the mesh");
+        assertEquals(2, result.size(), "Wrong number of points");
+        for (GeoPoint gp : result) {
+            assertSame(mesh.getMaterial(), gp.geometry.getMaterial(), "The face doesn't share the material");
+            assertSame(mesh.getEmission(), gp.geometry.getEmission(), "The face doesn't share the emission");
+            assertEquals(new Vector(0, 0, 1), gp.geometry.getNormal(gp.point), "Wrong face normal");
+            assertEquals(gp.point.distance(new Point(1.5, 0.5, 1)), gp.t, 1e-10, "Wrong ray parameter");
+        }
+        // TC02: The ray passes outside the squares
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(3, 1, 1), new Vector(0, 0, -1))),
+                "Ray outside the mesh");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The ray crosses the diagonal shared by two faces
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(1, 1, 1), new Vector(0, 0, -1))),
+                "Ray on an edge");
+        // TC12: A tiny face, whose determinant is below the absolute zero tolerance, is still hit
+        TriangleMesh tiny = new TriangleMesh(new double[]{0, 0, 0, 1e-7, 0, 0, 0, 1e-7, 0}, new int[]{0, 1, 2});
+        result = tiny.findGeoIntersections(new Ray(new Point(2.5e-8, 5e-8, 1), new Vector(0, 0, -1)));
+        assertNotNull(result, "Ray crosses a tiny face");
+        assertEquals(1, result.get(0).t, 1e-10, "Wrong distance to a tiny face");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findClosestGeoIntersection(primitives.Ray)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        TriangleMesh mesh = new TriangleMesh(vertices, faces);
+        Triangle near = new Triangle(new Point(0, 0, 0), new Point(2, 2, 0), new Point(0, 2, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: From above the closest face is on the upper square, and it is the same face for every point on it
+        Ray ray = new Ray(new Point(0.5, 1.5, 1), new Vector(0, 0, -1));
+        GeoPoint closest = mesh.findClosestGeoIntersection(ray);
+        assertEquals(near.findClosestGeoIntersection(ray), new GeoPoint(near, closest.point), "Wrong closest point");
+        assertEquals(closest.geometry, mesh.findClosestGeoIntersection(new Ray(new Point(0.2, 1.7, 1),
+                new Vector(0, 0, -1))).geometry, "The same face gave different geometries");
+        // TC02: From below the closest face is on the lower square
+        assertEquals(new Point(0.5, 1.5, -1),
+                mesh.findClosestGeoIntersection(new Ray(new Point(0.5, 1.5, -3), new Vector(0, 0, 1))).point,
+                "Wrong closest point from below");
+        // TC03: The upper square is beyond the maximal distance
+        assertNull(mesh.findClosestGeoIntersection(new Ray(new Point(0.5, 1.5, -3), new Vector(0, 0, 1)), 1.5),
+                "Found a point beyond the maximal distance");
+        // TC04: A mesh inside a BVH together with a triangle that hides it
+        Geometries geometries = new Geometries(mesh,
+                new Triangle(new Point(0, 0, 0.5), new Point(2, 0, 0.5), new Point(0, 2, 0.5))).buildBVH();
+        assertEquals(new Point(0.5, 0.5, 0.5),
+                geometries.findClosestGeoIntersection(new Ray(new Point(0.5, 0.5, 1), new Vector(0, 0, -1))).point,
+                "The triangle in front of the mesh wasn't found");
+        assertEquals(new Point(1.5, 1.2, 0),
+                geometries.findClosestGeoIntersection(new Ray(new Point(1.5, 1.2, 1), new Vector(0, 0, -1))).point,
+                "The mesh behind the triangle wasn't found");
+        // TC05: The closest intersection's geometry is always a face of the mesh, which gives its normal
+        GeoPoint face = geometries.findClosestGeoIntersection(new Ray(new Point(1.5, 1.2, 1), new Vector(0, 0, -1)));
+        assertNotSame(mesh, face.geometry, "The mesh itself was the geometry of the intersection");
+        assertEquals(new Vector(0, 0, 1), face.geometry.getNormal(face.point), "Wrong face normal");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findTransmittance(primitives.Ray, double, double)}.
+     */
+    @Test
+    void testFindTransmittance() {
+        TriangleMesh mesh = new TriangleMesh(vertices, faces);
+        mesh.setMaterial(new Material().setkT(0.5));
+        Ray ray = new Ray(new Point(0.5, 1.5, 1), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The light passes both squares
+        assertEquals(new Double3(0.25), mesh.findTransmittance(ray, 5, 0.001), "Wrong transmittance");
+        // TC02: The light is before the lower square
+        assertEquals(new Double3(0.5), mesh.findTransmittance(ray, 1.5, 0.001), "Wrong transmittance");
+        // TC03: The light is blocked once the transparency is below the minimum
+        assertEquals(Double3.ZERO, mesh.findTransmittance(ray, 5, 0.3), "The light wasn't blocked");
+    }
+}
@@ -1,6 +1,8 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 
 import primitives.Ray;
@@ -82,4 +84,49 @@ class TriangleTest {
         assertNull(result, "Wrong number of points");
     }
 
-}
\ No newline at end of file
+    /**
+     * Test method for {@link geometries.Triangle#findClosestHit(Ray, Intersectable.Hit)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Triangle triangle = new Triangle(new Point(-1, 0, 1), new Point(1, 0, 1), new Point(0, 2, 1));
+        Ray ray = new Ray(new Point(0, 1, 0), new Vector(0, 0, 1));
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The intersection is recorded with its barycentric coordinates
+        Intersectable.Hit hit = new Intersectable.Hit().reset(Double.POSITIVE_INFINITY);
+        assertTrue(triangle.findClosestHit(ray, hit), "Ray crosses triangle");
+        assertSame(triangle, hit.geometry, "Wrong geometry");
+        assertEquals(1, hit.t, 1e-10, "Wrong distance");
+        assertEquals(0.25, hit.u, 1e-10, "Wrong first barycentric coordinate");
+        assertEquals(0.5, hit.v, 1e-10, "Wrong second barycentric coordinate");
+        // TC02: A closer intersection was already found
+        hit.reset(0.5);
+        assertFalse(triangle.findClosestHit(ray, hit), "Replaced a closer intersection");
+        assertNull(hit.geometry, "Replaced a closer intersection");
+        // TC03: The triangle lets the light through according to its transparency
+        triangle.setMaterial(new Material().setkT(0.5));
+        assertEquals(new Double3(0.5), triangle.findTransmittance(ray, 2, 0.001), "Wrong transmittance");
+        assertEquals(Double3.ONE, triangle.findTransmittance(ray, 0.5, 0.001), "The light is before the triangle");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The ray is parallel to the triangle
+        hit.reset(Double.POSITIVE_INFINITY);
+        assertFalse(triangle.findClosestHit(new Ray(new Point(-2, 1, 1), new Vector(1, 0, 0)), hit),
+                "Ray parallel to the triangle");
+        // TC12: The ray starts on the triangle
+        assertFalse(triangle.findClosestHit(new Ray(new Point(0, 1, 1), new Vector(0, 0, 1)), hit),
+                "Ray starts on the triangle");
+        // TC13: A tiny triangle, whose determinant is below the absolute zero tolerance, is still hit
+        Triangle tiny = new Triangle(new Point(0, 0, 1), new Point(1e-7, 0, 1), new Point(0, 1e-7, 1));
+        hit.reset(Double.POSITIVE_INFINITY);
+        assertTrue(tiny.findClosestHit(new Ray(new Point(2.5e-8, 5e-8, 0), new Vector(0, 0, 1)), hit),
+                "Ray crosses a tiny triangle");
+        assertEquals(1, hit.t, 1e-10, "Wrong distance to a tiny triangle");
+        assertEquals(0.25, hit.u, 1e-10, "Wrong first barycentric coordinate of a tiny triangle");
+        assertEquals(0.5, hit.v, 1e-10, "Wrong second barycentric coordinate of a tiny triangle");
+        // TC14: A ray parallel to a tiny triangle
+        hit.reset(Double.POSITIVE_INFINITY);
+        assertFalse(tiny.findClosestHit(new Ray(new Point(-1, 2.5e-8, 1), new Vector(1, 0, 0)), hit),
+                "Ray parallel to a tiny triangle");
+    }
+}
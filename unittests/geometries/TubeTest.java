@@ -5,8 +5,12 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
+import static geometries.Intersectable.GeoPoint;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 /**
  * Unit tests for geometries.Tube class
@@ -44,4 +48,34 @@ class TubeTest {
         // ensure the result is right
         assertEquals(new Vector(1, 0, 0), result1, "getNormal() wrong result");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Tube#findGeoIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        Tube tube = new Tube(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray starts outside and crosses the tube (2 points)
+        List<GeoPoint> result = tube.findGeoIntersections(new Ray(new Point(2, 0, 0.5), new Vector(-1, 0, 0)));
+        assertEquals(2, result.size(), "Wrong number of points");
+        assertEquals(new Point(1, 0, 0.5), result.get(0).point, "Wrong first point");
+        assertEquals(new Point(-1, 0, 0.5), result.get(1).point, "Wrong second point");
+
+        // =============== Boundary Values Tests ==================
+        // ** Group: Ray starts at the head of the axis
+        // TC11: Ray orthogonal to the axis (1 point)
+        result = tube.findGeoIntersections(new Ray(new Point(0, 0, 0), new Vector(1, 0, 0)));
+        assertEquals(1, result.size(), "Wrong number of points");
+        assertEquals(new Point(1, 0, 0), result.get(0).point, "Wrong point");
+        // TC12: Ray oblique to the axis (1 point)
+        result = tube.findGeoIntersections(new Ray(new Point(0, 0, 0), new Vector(1, 0, 1)));
+        assertEquals(1, result.size(), "Wrong number of points");
+        assertEquals(new Point(1, 0, 1), result.get(0).point, "Wrong point");
+        assertEquals(Math.sqrt(2), result.get(0).t, 1e-10, "Wrong ray parameter");
+        // TC13: Ray along the axis (0 points)
+        assertNull(tube.findGeoIntersections(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))),
+                "Ray along the axis");
+    }
+}
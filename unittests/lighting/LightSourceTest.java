@@ -0,0 +1,64 @@
+package lighting;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.MutableDouble3;
+import primitives.Point;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for lighting.LightSource interface - the scratch triad versions of
+ * the light sources must give exactly the results of the immutable ones
+ *
+ * @author Michal Shlomo and Tamar Israeli
+ */
+class LightSourceTest {
+    /** the light sources to check */
+    private final LightSource[] lights = {
+            new PointLight(new Color(100, 300, 500), new Point(-50, 40, -20)).setKl(0.0003).setKq(0.00001),
+            new SpotLight(new Color(400, 300, 200), new Point(60, 50, 0), new Vector(-1, -1, -2))
+                    .setkL(0.0001).setkQ(0.00002),
+            new SpotLight(new Color(400, 300, 200), new Point(60, 50, 0), new Vector(-1, -1, -2))
+                    .setNarrowBeam(12),
+            new DirectionalLight(new Color(150, 150, 50), new Vector(1, -0.5, -1))
+    };
+    /** a point lit by all the light sources */
+    private final Point point = new Point(7.3, 4.1, -52.9);
+
+    /**
+     * Test method for {@link lighting.LightSource#getL(Point, MutableDouble3)}.
+     */
+    @Test
+    void testGetL() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The direction of each kind of light source
+        MutableDouble3 l = new MutableDouble3();
+        for (LightSource light : lights) {
+            light.getL(point, l);
+            assertEquals(light.getL(point).toString(), l.toVector().toString(), "Wrong light direction");
+        }
+    }
+
+    /**
+     * Test method for {@link lighting.LightSource#getIntensity(Point, MutableDouble3)}.
+     */
+    @Test
+    void testGetIntensity() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The color of each kind of light source
+        MutableDouble3 intensity = new MutableDouble3();
+        for (LightSource light : lights) {
+            light.getIntensity(point, intensity);
+            assertEquals(light.getIntensity(point).toString(), intensity.toColor().toString(),
+                    "Wrong light color");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A point behind a spot light is dark
+        LightSource spot = lights[1];
+        spot.getIntensity(new Point(70, 60, 20), intensity);
+        assertEquals(Color.BLACK.toString(), intensity.toColor().toString(), "A point behind a spot light is lit");
+    }
+}
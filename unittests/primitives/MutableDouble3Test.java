@@ -0,0 +1,88 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.MutableDouble3 class - the operations must give
+ * exactly the results of the matching immutable operations
+ *
+ * @author Michal Shlomo and Tamar Israeli
+ */
+class MutableDouble3Test {
+    /** a point */
+    private final Point p1 = new Point(1.3, -2.7, 5.1);
+    /** another point */
+    private final Point p2 = new Point(-0.4, 3.3, 0.9);
+
+    /**
+     * Checks that a triad has exactly the coordinates of a point (or a vector)
+     * @param expected the point
+     * @param actual   the triad
+     */
+    private static void assertSame3(Point expected, MutableDouble3 actual) {
+        assertEquals(expected.getX(), actual.d1, 0, "Wrong first number");
+        assertEquals(expected.getY(), actual.d2, 0, "Wrong second number");
+        assertEquals(expected.getZ(), actual.d3, 0, "Wrong third number");
+    }
+
+    /**
+     * Test method for {@link primitives.MutableDouble3#setDifference(Point, Point)}.
+     */
+    @Test
+    void testSetDifference() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The vector between two points, normalized
+        MutableDouble3 triad = new MutableDouble3().setDifference(p1, p2);
+        assertSame3(p1.subtract(p2), triad);
+        assertSame3(p1.subtract(p2).normalize(), triad.normalize());
+    }
+
+    /**
+     * Test method for {@link primitives.MutableDouble3#dotProduct(Vector)}.
+     */
+    @Test
+    void testDotProduct() {
+        Vector v1 = p1.subtract(p2), v2 = new Vector(0.3, 0.1, -2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The dot product of two vectors
+        assertEquals(v2.dotProduct(v1), new MutableDouble3().set(v1).dotProduct(v2), 0, "Wrong dot product");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Orthogonal vectors
+        assertEquals(0, new MutableDouble3().set(1, 0, 0).dotProduct(new Vector(0, 3, 0)), 0,
+                "Wrong dot product of orthogonal vectors");
+    }
+
+    /**
+     * Test method for {@link primitives.MutableDouble3#toNegatedVector()}.
+     */
+    @Test
+    void testToNegatedVector() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The opposite vector, and the triad is left as it was
+        MutableDouble3 triad = new MutableDouble3().setDifference(p1, p2);
+        assertEquals(p1.subtract(p2).scale(-1).toString(), triad.toNegatedVector().toString(), "Wrong negated vector");
+        assertSame3(p1.subtract(p2), triad);
+    }
+
+    /**
+     * Test method for {@link primitives.MutableDouble3#addProduct(MutableDouble3, Double3, MutableDouble3)}.
+     */
+    @Test
+    void testAddProduct() {
+        Color color = new Color(10, 20.5, 30), light = new Color(200, 150.3, 7);
+        Double3 k1 = new Double3(0.3, 0.7, 0.9), k2 = new Double3(0.11, 0.5, 1.3);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A color plus a light scaled by two factors, as the immutable color does it
+        MutableDouble3 triad = new MutableDouble3().set(color)
+                .addProduct(new MutableDouble3().set(light), k1, new MutableDouble3().set(k2));
+        assertEquals(color.add(light.scale(k1).scale(k2)).toString(), triad.toColor().toString(), "Wrong color");
+        // TC02: A factor of a triad plus a scaled triad
+        MutableDouble3 factor = new MutableDouble3().set(k1).scale(0.25).addScaled(k2, 3.5);
+        assertEquals(k1.scale(0.25).add(k2.scale(3.5)).toString(), factor.toString(), "Wrong factor");
+    }
+}
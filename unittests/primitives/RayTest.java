@@ -1,7 +1,11 @@
 package primitives;
 
+import geometries.Intersectable.GeoPoint;
+import geometries.Plane;
+import geometries.Sphere;
 import org.junit.jupiter.api.Test;
 
+import java.util.LinkedList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -51,4 +55,28 @@ class RayTest {
         result = r.findClosestPoint(List.of(p3,p1,p2));
         assertEquals(p2, result, "The correct point is in the end of the list");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link primitives.Ray#findClosestGeoPoint(List)}.
+     */
+    @Test
+    void testFindClosestGeoPoint() {
+        Ray ray = new Ray(new Point(0, 0, 5), new Vector(0, 0, -1));
+        Sphere sphere = new Sphere(1, new Point(0, 0, 0));
+        Plane plane = new Plane(new Vector(0, 0, 1), new Point(0, 0, -3));
+
+        // ============ Equivalence Partition Test ==============
+        // TC01: The intersection kernels provide the ray parameter, which picks the closest point
+        List<GeoPoint> intersections = new LinkedList<>(plane.findGeoIntersections(ray));
+        intersections.addAll(sphere.findGeoIntersections(ray));
+        for (GeoPoint gp : intersections)
+            assertEquals(ray.getHead().distance(gp.point), gp.t, 1e-10, "Wrong ray parameter of an intersection");
+        assertEquals(new Point(0, 0, 1), ray.findClosestGeoPoint(intersections).point, "Wrong closest intersection");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Points without a ray parameter are compared by their distance
+        GeoPoint result = ray.findClosestGeoPoint(List.of(new GeoPoint(plane, new Point(0, 0, -3)),
+                new GeoPoint(sphere, new Point(0, 0, 1))));
+        assertEquals(new Point(0, 0, 1), result.point, "Wrong closest point without a ray parameter");
+    }
+}
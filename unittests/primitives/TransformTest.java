@@ -0,0 +1,56 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.Transform class
+ *
+ * @author Michal Shlomo and Tamar Israeli
+ */
+class TransformTest {
+    /** a rotation, a scaling and a translation together */
+    private final Transform transform = Transform.rotation(new Vector(0, 0, 1), 90)
+            .then(Transform.scaling(2, 2, 2))
+            .then(Transform.translation(new Vector(1, 2, 3)));
+
+    /**
+     * Test method for {@link primitives.Transform#transform(primitives.Point)}.
+     */
+    @Test
+    void testTransform() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The transformations are applied in order - (1,0,0) is rotated to (0,1,0),
+        // scaled to (0,2,0) and moved to (1,4,3)
+        assertEquals(new Point(1, 4, 3), transform.transform(new Point(1, 0, 0)), "Wrong transformed point");
+        // TC02: A direction isn't translated
+        assertEquals(new Vector(0, 2, 0), transform.transformDirection(new Vector(1, 0, 0)),
+                "Wrong transformed direction");
+        // TC03: A normal stays orthogonal to a transformed surface - the plane x + y = 0 scaled along x
+        Transform stretch = Transform.scaling(2, 1, 1);
+        Vector normal = stretch.inverse().transformNormal(new Vector(1, 1, 0));
+        assertEquals(0, normal.dotProduct(stretch.transformDirection(new Vector(1, -1, 0))), 1e-10,
+                "The transformed normal isn't orthogonal to the surface");
+        assertEquals(1, normal.length(), 1e-10, "The transformed normal isn't normalized");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The identity keeps the point
+        assertEquals(new Point(1, 2, 3), Transform.IDENTITY.transform(new Point(1, 2, 3)), "Identity moved a point");
+    }
+
+    /**
+     * Test method for {@link primitives.Transform#inverse()}.
+     */
+    @Test
+    void testInverse() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The inverse brings the transformed point back
+        Point p = new Point(-3, 5, 7);
+        assertEquals(p, transform.inverse().transform(transform.transform(p)), "The inverse didn't bring the point back");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A scaling by zero can't be created
+        assertThrows(IllegalArgumentException.class, () -> Transform.scaling(1, 0, 1), "Created a zero scaling");
+    }
+}
@@ -1,6 +1,10 @@
 package renderer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import geometries.Sphere;
+import lighting.AmbientLight;
 
 import org.junit.jupiter.api.Test;
 
@@ -64,4 +68,61 @@ class CameraTest {
 
    }
 
+   /**
+    * Renders a small image of a sphere, once on the calling thread and once by a
+    * render session, and checks that both have the same pixels
+    * @param builder builder of the camera, with the rendering options
+    */
+   private void assertSameRender(Camera.Builder builder) {
+      Scene scene = new Scene("Test scene").setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.2)));
+      scene.geometries.add(new Sphere(4, new Point(1, 0, -20)).setEmission(new Color(0, 0, 200)));
+      builder.setLocation(Point.ZERO).setDirection(new Vector(0, 0, -1), new Vector(0, -1, 0))
+              .setVpDistance(10).setVpSize(15, 10).setRayTracer(new SimpleRayTracer(scene));
+      // a wide image - the columns beyond the rows are rendered as well
+      ImageWriter serial = new ImageWriter("serial render test", 30, 20);
+      builder.setImageWriter(serial).build().renderImage();
+      ImageWriter threaded = new ImageWriter("threaded render test", 30, 20);
+      try (RenderSession session = new RenderSession(2)) {
+         builder.setImageWriter(threaded).setRenderSession(session).build().renderImage();
+      }
+      for (int row = 0; row < 20; ++row)
+         for (int col = 0; col < 30; ++col)
+            assertEquals(threaded.readPixel(col, row), serial.readPixel(col, row),
+                    "Different pixel (" + col + "," + row + ")");
+   }
+
+   /**
+    * Test method for {@link renderer.Camera#renderImage()}.
+    */
+   @Test
+   void testRenderImage() {
+      // ============ Equivalence Partitions Tests ==============
+      // TC01: A ray through each pixel
+      assertSameRender(Camera.getBuilder());
+      // TC02: A beam of rays through each pixel
+      assertSameRender(Camera.getBuilder().setNumOfRays(9).setAntiAliasing(true));
+      // TC03: Adaptive super sampling
+      assertSameRender(Camera.getBuilder().setNumOfRays(16).setadaptive(true));
+   }
+
+   /**
+    * Test method for {@link renderer.Camera.Builder#setVirtualThreads(int)}.
+    */
+   @Test
+   void testSetVirtualThreads() {
+      // ============ Equivalence Partitions Tests ==============
+      if (RenderSession.hasVirtualThreads())
+         // TC01: Virtual threads render the same pixels as a session of platform threads
+         assertSameRender(Camera.getBuilder().setVirtualThreads(3));
+      else
+         // TC02: A JDK without virtual threads can't render on them
+         assertThrows(UnsupportedOperationException.class, () -> Camera.getBuilder().setVirtualThreads(3),
+                 "Set virtual threads without them");
+
+      // =============== Boundary Values Tests ==================
+      // TC11: No virtual threads
+      assertThrows(IllegalArgumentException.class, () -> Camera.getBuilder().setVirtualThreads(0),
+              "Set no virtual threads");
+   }
+
 }
@@ -0,0 +1,83 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.ForkJoinRender class
+ *
+ * @author Michal Shlomo and Tamar Israeli
+ */
+class ForkJoinRenderTest {
+    /** columns of pixels in the test images */
+    private static final int NX = 100;
+    /** rows of pixels in the test images */
+    private static final int NY = 70;
+
+    /**
+     * Test method for {@link renderer.ForkJoinRender#render(ForkJoinPool, double)}.
+     */
+    @Test
+    void testRender() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            // the pixels of the upper left corner are much more expensive than the rest
+            ImageWriter writer = new ImageWriter("fork join test", NX, NY);
+            AtomicIntegerArray counts = new AtomicIntegerArray(NX * NY);
+            RenderSession.PixelRenderer renderer = (col, row) -> {
+                if (col < 20 && row < 20) {
+                    long end = System.nanoTime() + 20_000;
+                    while (System.nanoTime() < end) Thread.onSpinWait();
+                }
+                counts.incrementAndGet(row * NX + col);
+                return new Color(col, row, 7);
+            };
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The first render estimates the costs by a pre-pass, which renders one pixel of each tile again
+            ForkJoinRender.Costs costs = new ForkJoinRender(writer, renderer, null).render(pool, 0);
+            int tiles = ((NX + 15) / 16) * ((NY + 15) / 16);
+            int total = 0;
+            for (int i = 0; i < counts.length(); ++i) {
+                assertTrue(counts.get(i) == 1 || counts.get(i) == 2, "A pixel wasn't rendered");
+                total += counts.get(i);
+            }
+            assertEquals(NX * NY + tiles, total, "Wrong amount of rendered pixels");
+            assertEquals(tiles, costs.tiles().length, "Wrong amount of measured tiles");
+            assertTrue(costs.tiles()[0] > costs.tiles()[tiles - 1], "The expensive tile wasn't measured");
+            for (int row = 0; row < NY; ++row)
+                for (int col = 0; col < NX; ++col)
+                    assertEquals(col << 16 | row << 8 | 7, writer.readPixel(col, row), "Wrong pixel color");
+
+            // TC02: A render with the costs of the previous one renders each pixel exactly once
+            AtomicIntegerArray again = new AtomicIntegerArray(NX * NY);
+            new ForkJoinRender(writer, (col, row) -> {
+                again.incrementAndGet(row * NX + col);
+                return Color.BLACK;
+            }, costs).render(pool, 0);
+            for (int i = 0; i < again.length(); ++i)
+                assertEquals(1, again.get(i), "A pixel wasn't rendered exactly once");
+
+            // =============== Boundary Values Tests ==================
+            // TC11: The costs of another image size are ignored
+            AtomicIntegerArray small = new AtomicIntegerArray(10 * 10);
+            new ForkJoinRender(new ImageWriter("fork join test", 10, 10), (col, row) -> {
+                small.incrementAndGet(row * 10 + col);
+                return Color.BLACK;
+            }, costs).render(pool, 0);
+            assertEquals(2, small.get(5 * 10 + 5), "The pre-pass didn't render the center pixel");
+            // TC12: A pixel that fails fails the render
+            assertThrows(IllegalStateException.class, () -> new ForkJoinRender(writer, (col, row) -> {
+                if (col == 50 && row == 30) throw new ArithmeticException();
+                return Color.BLACK;
+            }, costs).render(pool, 0), "The failure wasn't reported");
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
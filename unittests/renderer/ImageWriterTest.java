@@ -5,6 +5,8 @@ import primitives.Color;
 
 import static java.awt.Color.BLUE;
 import static java.awt.Color.RED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * A test class for the ImageWriter class.
@@ -37,4 +39,45 @@ class ImageWriterTest {
         // Write the image to file
         images.writeToImage();
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link renderer.ImageWriter#writeTile(int, int, int, int, int[])}.
+     */
+    @Test
+    void testWriteTile() {
+        ImageWriter image = new ImageWriter("tile test", 10, 8);
+        image.writePixel(5, 5, new Color(1, 2, 3));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A tile of 3x2 pixels in the middle of the image
+        image.writeTile(4, 3, 3, 2, new int[]{1, 2, 3, 4, 5, 6});
+        assertEquals(1, image.readPixel(4, 3), "Wrong first pixel of the tile");
+        assertEquals(3, image.readPixel(6, 3), "Wrong last pixel of the tile's first row");
+        assertEquals(4, image.readPixel(4, 4), "Wrong first pixel of the tile's second row");
+        assertEquals(6, image.readPixel(6, 4), "Wrong last pixel of the tile");
+        assertEquals(new Color(1, 2, 3).getRGB(), image.readPixel(5, 5), "A pixel outside the tile was changed");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The components of a color are limited to 255 when it is packed
+        assertEquals(0xFF0AFF, new Color(300, 10, 255.9).getRGB(), "Wrong packed color");
+        // TC12: A pixel out of the image's row isn't written into the next row
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> image.writePixel(10, 0, new Color(1, 2, 3)),
+                "Wrote a pixel out of the row");
+        // TC13: A tile wider than the rest of the row isn't wrapped into the next row
+        assertThrows(IllegalArgumentException.class, () -> image.writeTile(8, 0, 3, 1, new int[3]),
+                "Wrote a tile out of the row");
+        // TC14: A tile below the last row
+        assertThrows(IllegalArgumentException.class, () -> image.writeTile(0, 7, 2, 2, new int[4]),
+                "Wrote a tile out of the image");
+        // TC15: A tile at a negative position
+        assertThrows(IllegalArgumentException.class, () -> image.writeTile(-1, 0, 2, 1, new int[2]),
+                "Wrote a tile out of the image");
+        // TC16: Fewer colors than the pixels of the tile
+        assertThrows(IllegalArgumentException.class, () -> image.writeTile(0, 0, 2, 2, new int[3]),
+                "Wrote a tile without enough colors");
+        assertEquals(0, image.readPixel(0, 1), "A failed tile was partially written");
+        // TC17: A tile that ends exactly at the image's last pixel
+        image.writeTile(8, 6, 2, 2, new int[]{7, 7, 7, 9});
+        assertEquals(9, image.readPixel(9, 7), "Wrong last pixel of the image");
+    }
+}
@@ -156,6 +156,8 @@ public class MiniProject2Test {
 
         );
 
+        scene.setAcceleration(Scene.Acceleration.BVH);
+
         scene.lights.add(new PointLight(new Color(WHITE), new Point(-91, 0, -80)) //
                 .setKl(0.001).setKq(0.0005));
         scene.lights.add(new PointLight(new Color(100, 40, 80), new Point(-100, 150, 0)) //
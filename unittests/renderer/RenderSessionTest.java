@@ -0,0 +1,141 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.RenderSession class
+ *
+ * @author Michal Shlomo and Tamar Israeli
+ */
+class RenderSessionTest {
+    /** columns of pixels in the test images */
+    private static final int NX = 60;
+    /** rows of pixels in the test images */
+    private static final int NY = 45;
+
+    /**
+     * Renders a test image that counts how many times each pixel was rendered
+     * @param session the session that renders
+     * @return the counts of the pixels
+     */
+    private static AtomicIntegerArray render(RenderSession session) {
+        return render(session, new ImageWriter("session test", NX, NY));
+    }
+
+    /**
+     * Renders a test image that counts how many times each pixel was rendered,
+     * and colors each pixel by its position
+     * @param session the session that renders
+     * @param writer  the image
+     * @return the counts of the pixels
+     */
+    private static AtomicIntegerArray render(RenderSession session, ImageWriter writer) {
+        AtomicIntegerArray counts = new AtomicIntegerArray(NX * NY);
+        session.render(writer, 0, (col, row) -> {
+            counts.incrementAndGet(row * NX + col);
+            return new Color(col, row, 7);
+        });
+        return counts;
+    }
+
+    /**
+     * Checks that each pixel of a test image was rendered exactly once
+     * @param counts the counts of the pixels
+     */
+    private static void assertRenderedOnce(AtomicIntegerArray counts) {
+        for (int i = 0; i < counts.length(); ++i)
+            assertEquals(1, counts.get(i), "A pixel wasn't rendered exactly once");
+    }
+
+    /**
+     * Test method for {@link renderer.RenderSession#render(ImageWriter, double, RenderSession.PixelRenderer)}.
+     */
+    @Test
+    void testRender() throws Exception {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A session with threads of its own renders several images one after the other
+        try (RenderSession session = new RenderSession(3)) {
+            ImageWriter writer = new ImageWriter("session test", NX, NY);
+            assertRenderedOnce(render(session, writer));
+            assertRenderedOnce(render(session));
+            // the tiles were written into their places in the image
+            for (int row = 0; row < NY; ++row)
+                for (int col = 0; col < NX; ++col)
+                    assertEquals(col << 16 | row << 8 | 7, writer.readPixel(col, row), "Wrong pixel color");
+        }
+
+        // TC02: Sessions on a shared executor render at the same time
+        ExecutorService shared = Executors.newFixedThreadPool(2);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            RenderSession first = new RenderSession(shared, 2);
+            RenderSession second = new RenderSession(shared, 2);
+            Future<AtomicIntegerArray> firstImage = callers.submit(() -> render(first));
+            Future<AtomicIntegerArray> secondImage = callers.submit(() -> render(second));
+            assertRenderedOnce(firstImage.get());
+            assertRenderedOnce(secondImage.get());
+            // closing a session leaves the shared executor running
+            first.close();
+            assertRenderedOnce(render(second));
+        } finally {
+            callers.shutdown();
+            shared.shutdown();
+        }
+
+        // TC03: A pixel that fails fails the render
+        try (RenderSession session = new RenderSession(2)) {
+            assertThrows(IllegalStateException.class, () -> session.render(new ImageWriter("session test", NX, NY), 0,
+                    (col, row) -> {
+                        if (col == 7 && row == 9) throw new ArithmeticException();
+                        return Color.BLACK;
+                    }), "The failure wasn't reported");
+        }
+
+        // TC04: A fork/join session renders several images, each by the costs of the previous one
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try (RenderSession session = new RenderSession(pool)) {
+            assertEquals(2, session.getWorkers(), "Wrong amount of workers");
+            render(session);
+            assertRenderedOnce(render(session));
+        } finally {
+            pool.shutdown();
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A session without workers
+        assertThrows(IllegalArgumentException.class, () -> new RenderSession(0), "Created a session without workers");
+    }
+
+    /**
+     * Test method for {@link renderer.RenderSession#virtualThreads(int)}.
+     */
+    @Test
+    void testVirtualThreads() {
+        // ============ Equivalence Partitions Tests ==============
+        if (RenderSession.hasVirtualThreads()) {
+            // TC01: A session on virtual threads renders several images
+            try (RenderSession session = RenderSession.virtualThreads(4)) {
+                assertRenderedOnce(render(session));
+                assertRenderedOnce(render(session));
+            }
+        } else {
+            // TC02: A JDK without virtual threads can't create the session
+            assertThrows(UnsupportedOperationException.class, () -> RenderSession.virtualThreads(4),
+                    "Created a session on virtual threads without them");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A session without workers
+        assertThrows(IllegalArgumentException.class, () -> RenderSession.virtualThreads(0),
+                "Created a session without workers");
+    }
+}
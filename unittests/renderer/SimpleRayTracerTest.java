@@ -0,0 +1,93 @@
+package renderer;
+
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.SimpleRayTracer class
+ *
+ * @author Michal Shlomo and Tamar Israeli
+ */
+class SimpleRayTracerTest {
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#traceRay(Ray)}.
+     */
+    @Test
+    void testTraceRay() {
+        Scene scene = new Scene("Test scene");
+        scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.1)));
+        Material material = new Material().setkD(new Double3(0.5, 0.3, 0.7)).setkS(0.4).setnShininess(30);
+        Sphere sphere = new Sphere(50, new Point(0, 0, -100));
+        sphere.setEmission(new Color(20, 30, 40)).setMaterial(material);
+        scene.geometries.add(sphere);
+        scene.lights.add(new SpotLight(new Color(400, 300, 200), new Point(60, 50, 0), new Vector(-1, -1, -2))
+                .setkL(0.0001).setkQ(0.00002));
+        scene.lights.add(new PointLight(new Color(100, 300, 500), new Point(-50, 40, -20)).setKl(0.0003));
+        scene.lights.add(new DirectionalLight(new Color(150, 150, 50), new Vector(1, -0.5, -1)));
+        SimpleRayTracer tracer = new SimpleRayTracer(scene);
+        Ray ray = new Ray(Point.ZERO, new Vector(10, 5, -100));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The color of a point lit by all kinds of light sources is exactly the color of
+        // the Phong model, calculated by the immutable primitives
+        Point point = sphere.findGeoIntersections(ray).get(0).point;
+        Vector n = sphere.getNormal(point), v = ray.getDirection();
+        double nv = n.dotProduct(v);
+        Color expected = sphere.getEmission();
+        for (LightSource light : scene.lights) {
+            Vector l = light.getL(point);
+            double nl = n.dotProduct(l);
+            assertTrue(nl * nv > 0, "The light doesn't reach the point");
+            double cosTeta = 2 * nl * nv - v.dotProduct(l);
+            Double3 factor = material.kD.scale(Math.abs(nl))
+                    .add(cosTeta <= 0 ? Double3.ZERO : material.kS.scale(Math.pow(cosTeta, material.nShininess)));
+            expected = expected.add(light.getIntensity(point).scale(factor));
+        }
+        assertEquals(scene.ambientLight.getIntensity().add(expected).toString(), tracer.traceRay(ray).toString(),
+                "Wrong color");
+    }
+
+    /**
+     * Test method for
+     * {@link renderer.SimpleRayTracer#AdaptiveSuperSamplingRec(Point, double, double, double, double, Point, Vector, Vector, java.util.List)}.
+     */
+    @Test
+    void testAdaptiveSuperSamplingRec() throws Exception {
+        Scene scene = new Scene("Test scene");
+        scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.2)));
+        scene.geometries.add(new Sphere(50, new Point(0, 0, -100)).setEmission(new Color(0, 0, 200)));
+        SimpleRayTracer tracer = new SimpleRayTracer(scene);
+        Point camera = Point.ZERO;
+        Vector right = new Vector(1, 0, 0), up = new Vector(0, 1, 0);
+        // a pixel on the sphere's silhouette, subdivided down to 1/32 of its size
+        Point center = new Point(57.7, 0.3, -100);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The subtasks on a fork/join pool give exactly the color of the serial recursion
+        Color serial = tracer.AdaptiveSuperSamplingRec(center, 4, 4, 4 / 32d, 4 / 32d, camera, right, up, null);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Color parallel = pool.submit(() ->
+                    tracer.AdaptiveSuperSamplingRec(center, 4, 4, 4 / 32d, 4 / 32d, camera, right, up, null)).get();
+            assertEquals(serial.toString(), parallel.toString(), "The parallel recursion gave another color");
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
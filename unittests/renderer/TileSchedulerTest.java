@@ -0,0 +1,67 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.TileScheduler class
+ *
+ * @author Michal Shlomo and Tamar Israeli
+ */
+class TileSchedulerTest {
+    /**
+     * Test method for {@link renderer.TileScheduler#nextTile()}.
+     */
+    @Test
+    void testNextTile() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The tiles are handed out in Morton order
+        TileScheduler scheduler = new TileScheduler(8, 8, 2);
+        assertEquals(new TileScheduler.Tile(0, 0, 2, 2), scheduler.nextTile(), "Wrong first tile");
+        assertEquals(new TileScheduler.Tile(2, 0, 4, 2), scheduler.nextTile(), "Wrong second tile");
+        assertEquals(new TileScheduler.Tile(0, 2, 2, 4), scheduler.nextTile(), "Wrong third tile");
+        assertEquals(new TileScheduler.Tile(2, 2, 4, 4), scheduler.nextTile(), "Wrong fourth tile");
+        assertEquals(new TileScheduler.Tile(4, 0, 6, 2), scheduler.nextTile(), "Wrong fifth tile");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The tiles on the right and bottom edges are cut by the image
+        scheduler = new TileScheduler(5, 3, 4);
+        assertEquals(new TileScheduler.Tile(0, 0, 4, 3), scheduler.nextTile(), "Wrong first tile");
+        assertEquals(new TileScheduler.Tile(4, 0, 5, 3), scheduler.nextTile(), "Wrong edge tile");
+        assertNull(scheduler.nextTile(), "Handed out a tile after the last one");
+        // TC12: An image without pixels
+        assertThrows(IllegalArgumentException.class, () -> new TileScheduler(0, 3), "Scheduled an empty image");
+    }
+
+    /**
+     * Test method for {@link renderer.TileScheduler#waitToFinish(double)}.
+     */
+    @Test
+    void testWaitToFinish() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Several threads render each pixel exactly once
+        int nX = 100, nY = 70;
+        int[] rendered = new int[nX * nY];
+        TileScheduler scheduler = new TileScheduler(nX, nY, 8);
+        List<Thread> threads = new LinkedList<>();
+        for (int i = 0; i < 4; ++i)
+            threads.add(new Thread(() -> {
+                for (TileScheduler.Tile tile = scheduler.nextTile(); tile != null; tile = scheduler.nextTile()) {
+                    for (int row = tile.y0(); row < tile.y1(); ++row)
+                        for (int col = tile.x0(); col < tile.x1(); ++col)
+                            ++rendered[row * nX + col];
+                    scheduler.tileDone(tile);
+                }
+            }));
+        for (Thread thread : threads) thread.start();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> scheduler.waitToFinish(0),
+                "The scheduler didn't finish");
+        for (int count : rendered)
+            assertEquals(1, count, "A pixel wasn't rendered exactly once");
+    }
+}
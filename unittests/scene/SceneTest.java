@@ -0,0 +1,45 @@
+package scene;
+
+import geometries.BVHBuilder;
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scene.Scene class
+ *
+ * @author Michal Shlomo and Tamar Israeli
+ */
+class SceneTest {
+    /**
+     * Test method for {@link scene.Scene#buildAcceleration()}.
+     */
+    @Test
+    void testBuildAcceleration() {
+        Scene scene = new Scene("Test scene").setAcceleration(Scene.Acceleration.BVH);
+        scene.geometries.add(new Sphere(1, new Point(0, 0, -5)), new Sphere(1, new Point(3, 0, -5)),
+                new Sphere(1, new Point(-3, 0, -5)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The first render builds the structure
+        BVHBuilder.Statistics built = scene.buildAcceleration().geometries.getBVHStatistics();
+        assertNotNull(built, "The hierarchy wasn't built");
+        // TC02: The next renders use the same structure
+        assertSame(built, scene.buildAcceleration().geometries.getBVHStatistics(), "The hierarchy was rebuilt");
+        // TC03: Adding a geometry rebuilds the structure
+        scene.geometries.add(new Sphere(1, new Point(0, 3, -5)));
+        BVHBuilder.Statistics rebuilt = scene.buildAcceleration().geometries.getBVHStatistics();
+        assertNotNull(rebuilt, "The hierarchy wasn't rebuilt");
+        assertNotSame(built, rebuilt, "The hierarchy wasn't rebuilt");
+        // TC04: Changing the structure rebuilds it
+        scene.setAcceleration(Scene.Acceleration.GRID).buildAcceleration();
+        assertNull(scene.geometries.getBVHStatistics(), "The grid wasn't built");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The same structure chosen again after another one is rebuilt
+        scene.setAcceleration(Scene.Acceleration.BVH).buildAcceleration();
+        assertNotNull(scene.geometries.getBVHStatistics(), "The hierarchy wasn't rebuilt");
+    }
+}